@@ -0,0 +1,51 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cold loads of the word lists measured by bench/benchmarks/LoadBenchmark, which WordIndex.shared() hides from
+ * ModelBenchmark by loading once per JVM. Loaded reflectively for the same reason as ModelFixture.
+ */
+public class LoadFixture implements Function<String, Supplier<Object>> {
+    private final Path answers = Paths.get(Model.ANSWER_FILE);
+    private final Path words = Paths.get(Model.WORDS_FILE);
+    private final Path dictionary = Paths.get(WordIndex.DICTIONARY_FILE);
+
+    private interface Load {
+        Object run() throws IOException;
+    }
+
+    private static Supplier<Object> unchecked(Load load) {
+        return () -> {
+            try {
+                return load.run();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    @Override
+    public Supplier<Object> apply(String workload) {
+        switch (workload) {
+            case "text": // What shared() falls back to when dictionary.bin is missing or stale
+                return unchecked(() -> WordIndex.load(Model.ANSWER_FILE, Model.WORDS_FILE));
+            case "binary":
+                return unchecked(() -> {
+                    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(this.dictionary));
+                    if (!WordIndex.isCurrent(buffer, Model.ANSWER_FILE, Model.WORDS_FILE))
+                        throw new IOException(this.dictionary + " is stale, run DictionaryCompiler");
+                    return WordIndex.read(buffer);
+                });
+            case "stream":
+                return unchecked(() -> Dictionaries.stream(this.answers, this.words));
+            default:
+                throw new IllegalArgumentException("Unknown workload " + workload);
+        }
+    }
+}
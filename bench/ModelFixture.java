@@ -0,0 +1,68 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Model workloads measured by the JMH suite in bench/benchmarks.
+ * JMH refuses benchmark classes in the unnamed package and named packages cannot import it,
+ * so the benchmarks load this class reflectively once per trial and call each workload through a Supplier.
+ */
+public class ModelFixture implements Function<String, Supplier<Object>> {
+    private static final String[] WORDS = {"cigar", "rebut", "sissy", "humph", "awake", "blush", "focal", "evade"};
+    private final boolean strict;
+    private final Model model;
+    private final List<Letter> letters;
+    private int next; // Rotates through WORDS so each call sees a different word
+
+    public ModelFixture(String mode) throws IOException {
+        this.strict = mode.equals("strict");
+        this.model = newModel();
+        this.letters = this.model.stringToLetterList("crane");
+    }
+
+    private Model newModel() throws IOException {
+        return new Model(1, 2, this.strict ? 1 : 2);
+    }
+
+    private String nextWord() {
+        this.next = (this.next + 1) & (WORDS.length - 1);
+        return WORDS[this.next];
+    }
+
+    @Override
+    public Supplier<Object> apply(String workload) {
+        switch (workload) {
+            case "construct":
+                return () -> {
+                    try {
+                        return newModel();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                };
+            case "isValidWord":
+                return () -> this.model.isValidWord(nextWord());
+            case "turn": // One guess per call; the game is reset whenever it ends
+                return () -> {
+                    if (!this.model.getGameFlag()) this.model.initialise();
+                    this.model.submitWord(nextWord());
+                    String indicators = this.model.getIndicators();
+                    this.model.submitGuess();
+                    return indicators;
+                };
+            case "initialise":
+                return () -> {
+                    this.model.initialise();
+                    return this.model.getAnswer();
+                };
+            case "stringToLetterList":
+                return () -> this.model.stringToLetterList(nextWord());
+            case "letterListToString":
+                return () -> this.model.letterListToString(this.letters);
+            default:
+                throw new IllegalArgumentException("Unknown workload " + workload);
+        }
+    }
+}
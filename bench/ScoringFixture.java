@@ -0,0 +1,46 @@
+import java.io.IOException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Batch scoring workloads measured by bench/benchmarks/ScoringBenchmark: one guess against the first n answers,
+ * counted into a pattern histogram. Loaded reflectively for the same reason as ModelFixture.
+ */
+public class ScoringFixture implements Function<String, Supplier<Object>> {
+    private final WordIndex index;
+    private final int[] answers; // Packed
+    private final ColumnScorer columns;
+    private final int[] counts = new int[Scorer.PATTERNS];
+    private int next; // Rotates through the guess list so each call scores a different guess
+
+    public ScoringFixture(String answers) throws IOException {
+        this.index = WordIndex.shared();
+        int n = Math.min(Integer.parseInt(answers), this.index.answerCount());
+        this.answers = new int[n];
+        for (int k = 0; k < n; k++) this.answers[k] = this.index.answer(k);
+        this.columns = new ColumnScorer(this.answers, n);
+    }
+
+    private int nextGuess() {
+        if (++this.next == this.index.size()) this.next = 0;
+        return this.index.word(this.next);
+    }
+
+    @Override
+    public Supplier<Object> apply(String workload) {
+        switch (workload) {
+            case "scalar":
+                return () -> {
+                    ColumnScorer.histogram(nextGuess(), this.answers, this.answers.length, this.counts);
+                    return this.counts;
+                };
+            case "columns":
+                return () -> {
+                    this.columns.histogram(nextGuess(), this.counts);
+                    return this.counts;
+                };
+            default:
+                throw new IllegalArgumentException("Unknown workload " + workload);
+        }
+    }
+}
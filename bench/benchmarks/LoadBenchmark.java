@@ -0,0 +1,49 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cold loads of the word lists: parsing the text lists into a WordIndex, reading the compiled dictionary.bin,
+ * and streaming every length into off-heap lexicons. Run from the project root:
+ * java -jar target/benchmarks.jar LoadBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadBenchmark {
+    private Supplier<Object> text;
+    private Supplier<Object> binary;
+    private Supplier<Object> stream;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() throws ReflectiveOperationException {
+        Function<String, Supplier<Object>> fixture = (Function<String, Supplier<Object>>)
+                Class.forName("LoadFixture").getConstructor().newInstance();
+        this.text = fixture.apply("text");
+        this.binary = fixture.apply("binary");
+        this.stream = fixture.apply("stream");
+    }
+
+    @Benchmark
+    public Object text() {
+        return this.text.get();
+    }
+
+    @Benchmark
+    public Object binary() {
+        return this.binary.get();
+    }
+
+    @Benchmark
+    public Object stream() {
+        return this.stream.get();
+    }
+}
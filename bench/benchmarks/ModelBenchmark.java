@@ -0,0 +1,73 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Hot paths of Model. Run from the project root so Model can find src/assets:
+ * java -jar target/benchmarks.jar -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+    @Param({"strict", "loose"})
+    public String mode;
+
+    private Supplier<Object> construct;
+    private Supplier<Object> isValidWord;
+    private Supplier<Object> turn;
+    private Supplier<Object> initialise;
+    private Supplier<Object> stringToLetterList;
+    private Supplier<Object> letterListToString;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() throws ReflectiveOperationException {
+        Function<String, Supplier<Object>> fixture = (Function<String, Supplier<Object>>)
+                Class.forName("ModelFixture").getConstructor(String.class).newInstance(this.mode);
+        this.construct = fixture.apply("construct");
+        this.isValidWord = fixture.apply("isValidWord");
+        this.turn = fixture.apply("turn");
+        this.initialise = fixture.apply("initialise");
+        this.stringToLetterList = fixture.apply("stringToLetterList");
+        this.letterListToString = fixture.apply("letterListToString");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object construct() {
+        return this.construct.get();
+    }
+
+    @Benchmark
+    public Object isValidWord() {
+        return this.isValidWord.get();
+    }
+
+    @Benchmark
+    public Object submitWordGuessIndicators() {
+        return this.turn.get();
+    }
+
+    @Benchmark
+    public Object initialise() {
+        return this.initialise.get();
+    }
+
+    @Benchmark
+    public Object stringToLetterList() {
+        return this.stringToLetterList.get();
+    }
+
+    @Benchmark
+    public Object letterListToString() {
+        return this.letterListToString.get();
+    }
+}
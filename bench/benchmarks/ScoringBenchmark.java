@@ -0,0 +1,45 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * One guess scored against a list of answers into a pattern histogram, one answer at a time with Scorer
+ * against eight at a time with ColumnScorer. Run from the project root:
+ * java -jar target/benchmarks.jar ScoringBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringBenchmark {
+    @Param({"2315", "100"})
+    public String answers;
+
+    private Supplier<Object> scalar;
+    private Supplier<Object> columns;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() throws ReflectiveOperationException {
+        Function<String, Supplier<Object>> fixture = (Function<String, Supplier<Object>>)
+                Class.forName("ScoringFixture").getConstructor(String.class).newInstance(this.answers);
+        this.scalar = fixture.apply("scalar");
+        this.columns = fixture.apply("columns");
+    }
+
+    @Benchmark
+    public Object scalar() {
+        return this.scalar.get();
+    }
+
+    @Benchmark
+    public Object columns() {
+        return this.columns.get();
+    }
+}
@@ -0,0 +1,98 @@
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Moves a slow listener off the game thread. Events are queued and a daemon thread hands them to the delegate
+ * in batches of up to maxBatch through GameListener.onEvents, so a journal or metrics sink can handle a burst
+ * with one write instead of one per event. Publishing only costs a queue insert under a shared lock, which
+ * close() takes exclusively so that every event it let in is queued before the dispatcher drains its last batch.
+ */
+public class AsyncGameListener implements GameListener, Closeable {
+    // Constants
+    public static final int DEFAULT_BATCH = 256;
+    // Attributes
+    private final GameListener delegate;
+    private final int maxBatch;
+    private final LinkedBlockingQueue<GameEvent> queue = new LinkedBlockingQueue<>();
+    private final Thread dispatcher;
+    private final ReentrantReadWriteLock closing = new ReentrantReadWriteLock(); // Read to publish, write to close
+    private volatile boolean closed;
+
+    public AsyncGameListener(GameListener delegate) {
+        this(delegate, DEFAULT_BATCH);
+    }
+
+    public AsyncGameListener(GameListener delegate, int maxBatch) {
+        this.delegate = delegate;
+        this.maxBatch = maxBatch;
+        this.dispatcher = new Thread(this::dispatchLoop, "game-events");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    @Override
+    public void onEvent(GameEvent event) {
+        this.closing.readLock().lock();
+        try {
+            if (this.closed) throw new IllegalStateException("Listener is closed");
+            this.queue.add(event);
+        } finally {
+            this.closing.readLock().unlock();
+        }
+    }
+
+    private void dispatchLoop() {
+        List<GameEvent> batch = new ArrayList<>(this.maxBatch);
+        try {
+            while (!this.closed || !this.queue.isEmpty()) {
+                GameEvent first = this.queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                this.queue.drainTo(batch, this.maxBatch - 1);
+                deliver(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deliver(List<GameEvent> batch) {
+        try {
+            this.delegate.onEvents(batch);
+        } catch (RuntimeException e) { // A failing subscriber must not stop later events
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Number of events published but not yet handed to the delegate
+     */
+    public int getBacklog() {
+        return this.queue.size();
+    }
+
+    /**
+     * Delivers every queued event and stops the dispatcher thread
+     * @pre. None
+     * @post. Further events throw IllegalStateException
+     */
+    @Override
+    public void close() {
+        this.closing.writeLock().lock();
+        try {
+            this.closed = true;
+        } finally {
+            this.closing.writeLock().unlock();
+        }
+        try {
+            this.dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Non-interactive CLIWordle for bots and test rigs, selected with --batch. Reads one record per line and answers
+ * every record with one line, all through a single buffered writer that is only flushed when no more input is
+ * waiting, so a bot that writes ahead gets large writes and one that waits for each reply still gets it.
+ * Games are GameState values rather than Models, so a guess costs a lookup, a score and a short write.
+ *
+ * new            start a game with a random answer; reply "ready"
+ * new WORD       start a game with WORD as the answer; reply "ready"
+ * WORD           guess; reply the indicator string, followed by " won" or " lost ANSWER" when the game ends
+ * Anything rejected is answered with "error " and the reason. Blank lines are ignored.
+ */
+public class BatchMode {
+    // Constants
+    private static final int BUFFER = 1 << 16;
+    // Attributes
+    private final Lexicon lexicon;
+    private final int numGuesses;
+    private final boolean strict; // Guesses must be in the guess list
+    private final Random random;
+    private GameState game; // Null before the first "new"
+    private long games;
+    private long guesses;
+
+    /**
+     * @pre. lexicon.length() <= WordIndex.MAX_LENGTH, 1 <= numGuesses <= GameState.MAX_GUESSES
+     * @post. Throws IllegalArgumentException if the words do not fit an int or a GameState cannot hold the guesses
+     */
+    public BatchMode(Lexicon lexicon, int numGuesses, boolean strict, Random random) {
+        if (lexicon.length() > WordIndex.MAX_LENGTH)
+            throw new IllegalArgumentException("Batch mode plays words of up to " + WordIndex.MAX_LENGTH + " letters");
+        if (numGuesses < 1 || numGuesses > GameState.MAX_GUESSES) // Checked once here rather than on every "new"
+            throw new IllegalArgumentException("Batch mode plays 1 to " + GameState.MAX_GUESSES + " guesses");
+        this.lexicon = lexicon;
+        this.numGuesses = numGuesses;
+        this.strict = strict;
+        this.random = random;
+    }
+
+    /**
+     * Answers every record of in until it ends
+     * @pre. None
+     * @post. out has been flushed
+     */
+    public void run(BufferedReader in, Writer out) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty()) handle(line, out);
+            if (!in.ready()) out.flush(); // About to block on the bot, so it must have every reply so far
+        }
+        out.flush();
+    }
+
+    private void handle(String line, Writer out) throws IOException {
+        if (line.startsWith("new")) {
+            if (line.length() == 3) {
+                newGame(this.lexicon.packed(this.random.nextInt(this.lexicon.answerCount())), out);
+                return;
+            }
+            if (line.charAt(3) == ' ') {
+                String answer = line.substring(4).trim();
+                int packed = pack(answer);
+                if (packed == WordIndex.INVALID || (this.strict && !inList(packed)))
+                    out.write("error Answer is not a word of the list\n");
+                else newGame(packed, out);
+                return;
+            }
+        }
+        if (this.game == null || this.game.isOver()) {
+            out.write("error No game in progress\n");
+            return;
+        }
+        int packed = pack(line);
+        if (packed == WordIndex.INVALID) {
+            out.write("error Word is not " + this.lexicon.length() + " letters\n");
+            return;
+        }
+        if (this.strict && !inList(packed)) {
+            out.write("error Word is not in the guess list\n");
+            return;
+        }
+        this.game = this.game.apply(packed);
+        this.guesses++;
+        int turn = this.game.getTurns() - 1;
+        out.write(Scorer.indicators(this.game.getPattern(turn), this.lexicon.length()));
+        if (this.game.isWon()) out.write(" won");
+        else if (this.game.isOver()) {
+            out.write(" lost ");
+            out.write(WordIndex.unpack(this.game.getAnswer(), this.lexicon.length()));
+        }
+        out.write('\n');
+    }
+
+    private void newGame(long answer, Writer out) throws IOException {
+        this.game = GameState.start((int) answer, this.lexicon.length(), this.numGuesses);
+        this.games++;
+        out.write("ready\n");
+    }
+
+    private int pack(String word) {
+        int packed = WordIndex.pack(word, this.lexicon.length());
+        return packed != WordIndex.INVALID ? packed : WordIndex.pack(word.toLowerCase(), this.lexicon.length());
+    }
+
+    private boolean inList(int packed) { // The five-letter index looks packed words up without building a String
+        if (this.lexicon instanceof WordIndex) return ((WordIndex) this.lexicon).indexOf(packed) >= 0;
+        return this.lexicon.indexOf(WordIndex.unpack(packed, this.lexicon.length())) >= 0;
+    }
+
+    public long getGames() { return games; }
+    public long getGuesses() { return guesses; }
+
+    /**
+     * Runs batch mode for the options given to CLIWordle, reading the --batch source ("-" for stdin) and writing to
+     * stdout, then reports the totals on stderr
+     * @pre. options.getBatchSource() != null
+     * @post. None
+     */
+    public static void run(GameOptions options) throws IOException {
+        BatchMode batch = new BatchMode(options.lexicon(), options.getNumGuesses(), options.getStrictMode() == 1, new Random());
+        String source = options.getBatchSource();
+        long start = System.nanoTime();
+        Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out),
+                StandardCharsets.US_ASCII), BUFFER); // Straight to the descriptor, past System.out's own flushing
+        try (BufferedReader in = source.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.US_ASCII), BUFFER)
+                : new BufferedReader(Files.newBufferedReader(Paths.get(source), StandardCharsets.US_ASCII), BUFFER)) {
+            batch.run(in, out);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("games=%d guesses=%d elapsed=%.3fs (%.0f guesses/s)%n",
+                batch.getGames(), batch.getGuesses(), seconds, batch.getGuesses() / seconds);
+    }
+}
@@ -3,15 +3,21 @@ import java.util.Scanner;
 
 public class CLIWordle {
 
-    public static void main(String[] args) throws IOException {
+    public static void main(String[] args) throws IOException { // Options are listed in GameOptions
+        GameOptions options = GameOptions.parse(args);
+        if (options.getBatchSource() != null) { // Bots and test rigs: no prompts, one reply line per record
+            if (options.getBoards() > 1) throw new IllegalArgumentException("Batch mode plays one board");
+            BatchMode.run(options);
+            return;
+        }
         Scanner scanner = new Scanner(System.in);
         int randomMode, spoilerMode, strictMode;
 
         // Choose various game modes to play
         do {
-            System.out.println("Press 1 for a random word or 2 for a fixed word");
+            System.out.println("Press 1 for a random word, 2 for a fixed word or 3 for an adversarial word");
             randomMode = scanner.nextInt();
-        } while (randomMode != 1 && randomMode != 2);
+        } while (randomMode != 1 && randomMode != 2 && randomMode != 3);
         do {
             System.out.println("Press 1 for spoiler mode or 2 for secret mode");
             spoilerMode = scanner.nextInt();
@@ -20,21 +26,68 @@ public class CLIWordle {
             System.out.println("Press 1 for strict mode or 2 for loose mode");
             strictMode = scanner.nextInt();
         } while (strictMode != 1 && strictMode != 2);
-        Model model = new Model(randomMode, spoilerMode, strictMode);
+        if (options.getBoards() > 1) {
+            MultiBoardModel model = options.createMultiBoardModel(randomMode, strictMode);
+            if (spoilerMode == 1) System.out.println("The answers are " + String.join(", ", model.getAnswers()));
+            multiBoardLoop(model, scanner);
+            return;
+        }
+        Model model = options.createModel(randomMode, spoilerMode, strictMode);
 
         gameLoop(model, scanner);
     }
 
-    public static void gameLoop(Model model, Scanner scanner) {
+    public static void multiBoardLoop(MultiBoardModel model, Scanner scanner) { // One line per board after each guess
+        while (!model.isOver()) {
+            System.out.println("Enter guess number " + (model.getTurnCount()+1) + " of " + model.getNumGuesses());
+            String guess = scanner.next().toLowerCase();
+            String invalid = model.getValidationError(guess);
+            if (invalid != null) {
+                System.out.println(invalid);
+                continue;
+            }
+            model.submitGuess(guess);
+            int turn = model.getTurnCount() - 1;
+            for (int b = 0; b < model.getBoards(); b++) {
+                int pattern = model.getPattern(b, turn);
+                String line = pattern == MultiBoardModel.SOLVED ? "solved in " + model.getSolvedTurn(b)
+                        : Scorer.indicators(pattern, model.getWordLength());
+                System.out.printf("%2d: %s%n", b + 1, line);
+            }
+            System.out.println(model.getSolvedCount() + "/" + model.getBoards() + " solved");
+            System.out.println("");
+        }
+        if (model.isWon()) System.out.println("Correct! You solved every board!");
+        else System.out.println("No more guesses allowed. The answers were " + String.join(", ", model.getAnswers()));
+    }
+
+    public static void gameLoop(Model model, Scanner scanner) throws IOException {
         String guess;
-        int i;
+        Solver solver = null; // Created on the first hint request
         if (model.isSpoilerFlag()) System.out.println("The answer is " + model.letterListToString(model.getAnswer()));
         while (model.getGameFlag()) {
             // Enter guess
-            System.out.println("Enter guess number " + (model.getTurnCount()+1));
+            System.out.println("Enter guess number " + (model.getTurnCount()+1) + " (or \"hint\")");
             guess = scanner.next();
-            while (!model.isValidWord(guess)) {
-                System.out.println("Not a valid guess. Try again!");
+            while (guess.equals("hint") || !model.isValidWord(guess)) {
+                if (guess.equals("hint")) {
+                    String hint;
+                    if (model.getIndex() == null) hint = model.getFirstCandidate(); // The solver only plays five-letter words
+                    else {
+                        if (solver == null) {
+                            solver = new Solver(model.getIndex(), PatternMatrix.load(model.getIndex()));
+                            solver.setTree(DecisionTree.load(model.getIndex()));
+                        }
+                        hint = solver.hint(model);
+                    }
+                    System.out.println(hint != null ? "Try \"" + hint + "\"" : "No words in the answer list fit.");
+                }
+                else {
+                    System.out.println(model.getValidationError(guess));
+                    int live = model.livePrefixLength(guess);
+                    if (live < guess.length()) System.out.println("No word starts with \"" + guess.substring(0, live + 1) + "\"");
+                    System.out.println("Not a valid guess. Try again!");
+                }
                 guess = scanner.next();
             }
 
@@ -56,6 +109,7 @@ public class CLIWordle {
                 System.out.println("Partial letters: " + model.letterListToStringList(model.getPartialLetters()));
                 System.out.println("Wrong letters: " + model.letterListToStringList(model.getWrongLetters()));
                 System.out.println("Unused letters: " + model.letterListToStringList(model.getUnusedLetters()));
+                System.out.println(model.remainingCandidateCount() + " words left");
                 System.out.println("");
             }
         }
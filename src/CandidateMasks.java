@@ -0,0 +1,69 @@
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * For each guess, one answer bitmask per feedback pattern: bit a of mask(g, p) is set when answer a
+ * scores pattern p against guess g. A guess's 243 masks are built in one pass over the answers the first
+ * time it is played and kept in a bounded LRU cache shared by every Model using the same WordIndex.
+ */
+public class CandidateMasks {
+    // Constants
+    private static final int CACHED_GUESSES = 1024; // Roughly 50KB of masks per guess
+    private static final Map<WordIndex, CandidateMasks> SHARED = Collections.synchronizedMap(new WeakHashMap<>()); // Dropped with their index
+    // Attributes
+    private final int[] answers; // Packed answers, copied so the cache does not keep its WordIndex reachable
+    private final int words; // Longs per mask
+    private final Map<Integer, long[][]> cache;
+
+    private CandidateMasks(WordIndex index) {
+        this.answers = new int[index.answerCount()];
+        for (int a = 0; a < this.answers.length; a++) this.answers[a] = index.answer(a);
+        this.words = (this.answers.length + 63) >>> 6;
+        this.cache = new LinkedHashMap<Integer, long[][]>(CACHED_GUESSES * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, long[][]> eldest) {
+                return size() > CACHED_GUESSES;
+            }
+        };
+    }
+
+    /**
+     * The masks of an index's answers, shared for as long as the index is reachable
+     * @pre. None
+     * @post. None
+     */
+    public static CandidateMasks of(WordIndex index) {
+        return SHARED.computeIfAbsent(index, CandidateMasks::new);
+    }
+
+    /**
+     * Returns the answers that score pattern against guess g
+     * @pre. 0 <= g < index.size(), guess is index.word(g), 0 <= pattern < Scorer.PATTERNS
+     * @post. Returns null if no answer gives that pattern; the returned array must not be modified
+     */
+    public long[] mask(int g, int guess, int pattern) {
+        long[][] masks;
+        synchronized (this.cache) {
+            masks = this.cache.get(g);
+        }
+        if (masks == null) { // Built outside the lock; a racing thread builds an identical table
+            masks = build(guess);
+            synchronized (this.cache) {
+                this.cache.put(g, masks);
+            }
+        }
+        return masks[pattern];
+    }
+
+    private long[][] build(int guess) {
+        long[][] masks = new long[Scorer.PATTERNS][];
+        for (int a = 0; a < this.answers.length; a++) {
+            int p = Scorer.score(guess, this.answers[a]);
+            if (masks[p] == null) masks[p] = new long[this.words];
+            masks[p][a >>> 6] |= 1L << a;
+        }
+        return masks;
+    }
+}
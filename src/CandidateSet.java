@@ -0,0 +1,109 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Bitset over the answer list marking the answers still consistent with a game's feedback.
+ * Narrowing is an AND with a precomputed CandidateMasks mask, so each guess costs O(answers / 64).
+ */
+public class CandidateSet {
+    private final int size; // Number of answers
+    private final long[] bits;
+    private int count; // Number of set bits
+
+    public CandidateSet(int size) {
+        this.size = size;
+        this.bits = new long[(size + 63) >>> 6];
+        reset();
+    }
+
+    /**
+     * Marks every answer as a candidate
+     * @pre. None
+     * @post. count() == size
+     */
+    public void reset() {
+        Arrays.fill(this.bits, -1L);
+        if ((this.size & 63) != 0) this.bits[this.bits.length - 1] = (1L << this.size) - 1; // Clear bits past the end
+        this.count = this.size;
+    }
+
+    /**
+     * Keeps only the candidates set in mask
+     * @pre. mask is null (no answer survives) or has the same length as this set
+     * @post. count() has not increased
+     */
+    public void narrow(long[] mask) {
+        if (mask == null) {
+            Arrays.fill(this.bits, 0L);
+            this.count = 0;
+            return;
+        }
+        int count = 0;
+        for (int i = 0; i < this.bits.length; i++) count += Long.bitCount(this.bits[i] &= mask[i]);
+        this.count = count;
+    }
+
+    /**
+     * Keeps only the candidates that would give pattern for a guess that has no precomputed masks
+     * @pre. guess is a packed word
+     * @post. count() has not increased
+     */
+    public void narrow(WordIndex index, int guess, int pattern) {
+        for (int a = next(0); a >= 0; a = next(a + 1))
+            if (Scorer.score(guess, index.answer(a)) != pattern) {
+                this.bits[a >>> 6] &= ~(1L << a);
+                this.count--;
+            }
+    }
+
+    /**
+     * Keeps only the candidates that would give pattern for a guess against a lexicon of any word length
+     * @pre. guess is packed as in lexicon and this set covers lexicon.answerCount() answers
+     * @post. count() has not increased
+     */
+    public void narrow(Lexicon lexicon, long guess, int pattern) {
+        int length = lexicon.length();
+        for (int a = next(0); a >= 0; a = next(a + 1))
+            if (Scorer.score(guess, lexicon.packed(a), length) != pattern) {
+                this.bits[a >>> 6] &= ~(1L << a);
+                this.count--;
+            }
+    }
+
+    /**
+     * Returns the first candidate at or after from
+     * @pre. from >= 0
+     * @post. Returns -1 if there is none
+     */
+    public int next(int from) {
+        int i = from >>> 6;
+        if (i >= this.bits.length) return -1;
+        long word = this.bits[i] & (-1L << from);
+        while (word == 0) {
+            if (++i == this.bits.length) return -1;
+            word = this.bits[i];
+        }
+        return (i << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < this.bits.length; i++)
+            for (long word = this.bits[i]; word != 0; word &= word - 1)
+                action.accept((i << 6) + Long.numberOfTrailingZeros(word));
+    }
+
+    public int[] toArray() {
+        int[] candidates = new int[this.count];
+        int n = 0;
+        for (int a = next(0); a >= 0; a = next(a + 1)) candidates[n++] = a;
+        return candidates;
+    }
+
+    public boolean contains(int answer) {
+        return (this.bits[answer >>> 6] & (1L << answer)) != 0;
+    }
+
+    public int count() {
+        return count;
+    }
+}
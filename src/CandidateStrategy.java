@@ -0,0 +1,33 @@
+/**
+ * Baseline strategy: opens with a fixed word, then always guesses the first answer that is still
+ * consistent with every pattern seen so far.
+ */
+public class CandidateStrategy implements Strategy {
+    private final WordIndex index;
+    private final int opener; // WordIndex position of the first guess
+
+    public CandidateStrategy(WordIndex index, String opener) {
+        this.index = index;
+        this.opener = index.indexOf(opener);
+        assert this.opener >= 0; // Opener is in the guess list
+    }
+
+    @Override
+    public int nextGuess(int[] guesses, int[] patterns, int turn) {
+        if (turn == 0) return this.opener;
+        for (int a = 0; a < this.index.answerCount(); a++)
+            if (isConsistent(this.index.answer(a), guesses, patterns, turn)) return a;
+        return this.opener; // Answer is not in the answer list, nothing left to narrow
+    }
+
+    /**
+     * Returns true if answer would have produced every recorded pattern
+     * @pre. guesses and patterns hold turn entries
+     * @post. None
+     */
+    public boolean isConsistent(int answer, int[] guesses, int[] patterns, int turn) {
+        for (int t = 0; t < turn; t++)
+            if (Scorer.score(this.index.word(guesses[t]), answer) != patterns[t]) return false;
+        return true;
+    }
+}
@@ -0,0 +1,147 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Scores one five-letter guess against a whole list of answers at once.
+ * Answers are laid out column-wise, one byte array per letter position, and read eight at a time as the byte
+ * lanes of a long, so every step of the Scorer rules (greens, letter counts outside the greens, partials by
+ * rank among repeated guess letters) is a handful of long operations covering eight answers.
+ * Patterns stay below 256, so each lane holds a whole pattern and the histogram is filled straight from them.
+ */
+public final class ColumnScorer {
+    // Constants
+    public static final int LANES = 8; // Answers per long
+    private static final long ONES = 0x0101010101010101L; // 1 in every lane
+    private static final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+    private static final long HIGH = 0x8080808080808080L; // Top bit of every lane
+    private static final byte PAD = 31; // Letter of the unused lanes past the last answer, matches no guess letter
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final int[] POW3 = {1, 3, 9, 27, 81};
+    // Attributes
+    private final byte[][] columns; // columns[i][k] is letter i of answer k
+    private final int size;
+
+    /**
+     * Lays out n packed answers
+     * @pre. 0 <= n <= answers.length, answers are packed five-letter words
+     * @post. size() == n
+     */
+    public ColumnScorer(int[] answers, int n) {
+        int padded = (n + LANES - 1) / LANES * LANES;
+        this.columns = new byte[WordIndex.WORD_LENGTH][padded];
+        this.size = n;
+        for (int i = 0; i < WordIndex.WORD_LENGTH; i++) {
+            byte[] column = this.columns[i];
+            for (int k = 0; k < n; k++) column[k] = (byte) ((answers[k] >>> (i * WordIndex.BITS_PER_LETTER)) & 31);
+            for (int k = n; k < padded; k++) column[k] = PAD;
+        }
+    }
+
+    /**
+     * Lays out the answers at the given positions of index
+     * @pre. Every element of positions is an answer position in index
+     * @post. Answer k of the layout is index.answer(positions[k])
+     */
+    public static ColumnScorer of(WordIndex index, int[] positions) {
+        int[] answers = new int[positions.length];
+        for (int k = 0; k < answers.length; k++) answers[k] = index.answer(positions[k]);
+        return new ColumnScorer(answers, answers.length);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Counts the answers giving each pattern against guess
+     * @pre. guess is a packed five-letter word, counts.length >= Scorer.PATTERNS
+     * @post. counts[p] is the number of answers k with Scorer.score(guess, answer k) == p
+     */
+    public void histogram(int guess, int[] counts) {
+        Arrays.fill(counts, 0, Scorer.PATTERNS, 0);
+        long[] letters = new long[WordIndex.WORD_LENGTH];
+        long[] open = new long[WordIndex.WORD_LENGTH];
+        int full = this.size / LANES * LANES;
+        for (int k = 0; k < full; k += LANES) {
+            long patterns = block(guess, k, letters, open);
+            for (int l = 0; l < LANES; l++) counts[(int) (patterns >>> (l * 8)) & 0xFF]++;
+        }
+        if (full < this.size) {
+            long patterns = block(guess, full, letters, open);
+            for (int l = 0; l < this.size - full; l++) counts[(int) (patterns >>> (l * 8)) & 0xFF]++;
+        }
+    }
+
+    /**
+     * Writes the pattern of guess against every answer
+     * @pre. guess is a packed five-letter word, out.length >= size()
+     * @post. out[k] == Scorer.score(guess, answer k)
+     */
+    public void scoreAll(int guess, int[] out) {
+        long[] letters = new long[WordIndex.WORD_LENGTH];
+        long[] open = new long[WordIndex.WORD_LENGTH];
+        for (int k = 0; k < this.size; k += LANES) {
+            long patterns = block(guess, k, letters, open);
+            for (int l = 0; l < LANES && k + l < this.size; l++) out[k + l] = (int) (patterns >>> (l * 8)) & 0xFF;
+        }
+    }
+
+    /**
+     * Same counts as histogram(), scoring one packed answer at a time; the reference the column kernel is
+     * checked and benchmarked against
+     * @pre. counts.length >= Scorer.PATTERNS
+     * @post. None
+     */
+    public static void histogram(int guess, int[] answers, int n, int[] counts) {
+        Arrays.fill(counts, 0, Scorer.PATTERNS, 0);
+        for (int k = 0; k < n; k++) counts[Scorer.score(guess, answers[k])]++;
+    }
+
+    /**
+     * Scores guess against the eight answers starting at k
+     * @pre. k is a multiple of LANES below the padded size; letters and open are scratch of WORD_LENGTH longs
+     * @post. Byte l of the result is the pattern against answer k + l
+     */
+    private long block(int guess, int k, long[] letters, long[] open) { // open: 1 in the lanes where i is not correct
+        long patterns = 0;
+        for (int i = 0; i < WordIndex.WORD_LENGTH; i++) {
+            letters[i] = (long) LONGS.get(this.columns[i], k);
+            long green = equal(letters[i], guessLetter(guess, i));
+            open[i] = green ^ ONES;
+            patterns += green * (Scorer.DIGIT_CORRECT * POW3[i]);
+        }
+        for (int i = 0; i < WordIndex.WORD_LENGTH; i++) {
+            int g = guessLetter(guess, i);
+            long rank = 0; // Earlier open positions guessing the same letter, each of which used up one occurrence
+            for (int j = 0; j < i; j++) if (guessLetter(guess, j) == g) rank += open[j];
+            long count = 0; // Occurrences of g in the answer outside the correct positions
+            for (int j = 0; j < WordIndex.WORD_LENGTH; j++) count += equal(letters[j], g) & open[j];
+            long partial = greater(count, rank) & open[i];
+            patterns += partial * (Scorer.DIGIT_PARTIAL * POW3[i]);
+        }
+        return patterns;
+    }
+
+    private static int guessLetter(int guess, int i) {
+        return (guess >>> (i * WordIndex.BITS_PER_LETTER)) & 31;
+    }
+
+    /**
+     * 1 in the lanes of letters equal to c, 0 elsewhere
+     * @pre. Every lane of letters and c are below 128
+     */
+    private static long equal(long letters, int c) {
+        long diff = letters ^ (c * ONES);
+        return ((~((diff & LOW7) + LOW7 | diff) & HIGH) >>> 7);
+    }
+
+    /**
+     * 1 in the lanes where a > b, 0 elsewhere
+     * @pre. Every lane of a and b is at most WordIndex.WORD_LENGTH
+     */
+    private static long greater(long a, long b) {
+        return (((a | HIGH) - (b + ONES)) & HIGH) >>> 7; // Lanes stay at or above 0x80 - 6, so nothing borrows
+    }
+}
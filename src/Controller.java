@@ -1,10 +1,16 @@
 import java.awt.*;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class Controller {
+    private static final OperationStats NEW_GAME = Metrics.operation("Controller.newGame");
+    private static final OperationStats SUBMIT_GUESS = Metrics.operation("Controller.submitGuess");
+    private static final OperationStats GET_HINT = Metrics.operation("Controller.getHint");
     private final Model model;
     private View view;
+    private Solver solver; // Created on the first hint request
 
     public Controller(Model model) {
         this.model = model;
@@ -15,11 +21,17 @@ public class Controller {
     }
 
     public int getNumGuesses() {
-        return Model.NUMGUESSES;
+        return model.getNumGuesses();
+    }
+
+    public int getWordLength() {
+        return model.getWordLength();
     }
 
     public void newGame() {
+        long start = System.nanoTime();
         model.initialise();
+        NEW_GAME.record(start);
         if (model.isSpoilerFlag()) System.out.println("The answer is \"" + model.letterListToString(model.getAnswer()) + "\"");
     }
 
@@ -32,19 +44,16 @@ public class Controller {
         return colours;
     }
 
-    public void submitLetter(String text) { // Submit letter to model and call view to update label
-        if (model.getCurrentGuess().size() < 5) {
-            Letter letter = model.getLetter(text);
-            model.submitLetter(letter);
-            view.addLetter(letter);
-        }
+    public void submitLetter(String text) { // Submit letter to model, the view shows it from the LetterTyped event
+        if (model.getCurrentGuess().size() < model.getWordLength()) model.submitLetter(model.getLetter(text));
     }
 
-    public void removeLetter() { // Remove letter in model and clear corresponding label
-        if (model.getCurrentGuess().size() > 0) {
-            model.removeLastLetter();
-            view.removeLetter();
-        }
+    public void removeLetter() { // Remove letter in model, the view clears it from the LetterTyped event
+        if (model.getCurrentGuess().size() > 0) model.removeLastLetter();
+    }
+
+    public boolean isPrefixLive() { // Whether the letters typed so far can still become a valid word
+        return model.isCurrentPrefixLive();
     }
 
     public String getCurrentGuessAsString() {
@@ -60,15 +69,71 @@ public class Controller {
     }
 
     public void submitGuess() {
-        if (model.getCurrentGuess().size() == 5 && model.isCurrentGuessValid()) {
+        long start = System.nanoTime();
+        if (model.getGameFlag() && model.getCurrentGuess().size() == model.getWordLength() && model.isCurrentGuessValid()) {
             model.submitGuess();
         }
+        else SUBMIT_GUESS.recordError(); // Rejected as incomplete, not a word, or after the game ended
+        SUBMIT_GUESS.record(start);
+    }
+
+    public String getHint() { // Suggest the next guess, or null if no answer fits the feedback
+        long start = System.nanoTime();
+        try {
+            return model.getIndex() == null ? model.getFirstCandidate() : solver().hint(model);
+        } finally {
+            GET_HINT.record(start);
+        }
+    }
+
+    /**
+     * Reads the game on the calling thread and returns the hint search, which may then run on any thread
+     * @pre. None
+     * @post. The returned task gives what getHint() would have given now
+     */
+    public Supplier<String> getHintTask() {
+        if (model.getIndex() == null) { // The solver only plays five-letter words
+            String first = model.getFirstCandidate();
+            return () -> first;
+        }
+        GameState state = model.getState();
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                return solver().hint(state);
+            } finally {
+                GET_HINT.record(start);
+            }
+        };
+    }
+
+    private synchronized Solver solver() { // Loads the pattern matrix on the first hint
+        if (solver == null) {
+            PatternMatrix matrix;
+            try {
+                matrix = PatternMatrix.load(model.getIndex());
+            } catch (IOException e) { // Fall back to scoring every pair directly
+                e.printStackTrace();
+                matrix = null;
+            }
+            solver = new Solver(model.getIndex(), matrix);
+            solver.setTree(DecisionTree.load(model.getIndex())); // Null until the tree has been built
+        }
+        return solver;
     }
 
     public List<List<Letter>> getSubmittedGuesses() {
         return model.getSubmittedGuesses();
     }
 
+    public int getPattern(int turn) {
+        return model.getPattern(turn);
+    }
+
+    public int getRemainingCandidateCount() {
+        return model.remainingCandidateCount();
+    }
+
     public int getTurnCount() {
         return model.getTurnCount();
     }
@@ -0,0 +1,71 @@
+import java.util.Arrays;
+
+/**
+ * Approximate counts of a stream of long keys in fixed memory.
+ * Every key increments one counter in each of depth rows; its estimate is the smallest of those counters, which
+ * never undercounts and overcounts by at most 2N/width with probability 1 - 2^-depth after N additions.
+ * Not thread-safe: GuessAnalytics gives every stripe its own sketch and merges them when queried.
+ */
+public final class CountMinSketch {
+    // Attributes
+    private final int depth;
+    private final int width; // A power of two
+    private final int[] counts; // Row r occupies [r * width, (r + 1) * width)
+    private long total; // Sum of every addition
+
+    /**
+     * @pre. depth >= 1, width is a power of two
+     * @post. Every estimate is 0
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || Integer.bitCount(width) != 1) throw new IllegalArgumentException("Bad sketch size");
+        this.depth = depth;
+        this.width = width;
+        this.counts = new int[depth * width];
+    }
+
+    public void add(long key, int count) {
+        long h = mix(key);
+        int h1 = (int) h, h2 = (int) (h >>> 32) | 1; // Rows use h1 + r * h2, as good as independent hashes
+        for (int r = 0; r < this.depth; r++) this.counts[r * this.width + ((h1 + r * h2) & (this.width - 1))] += count;
+        this.total += count;
+    }
+
+    /**
+     * @pre. None
+     * @post. Returns at least the true count of key
+     */
+    public int estimate(long key) {
+        long h = mix(key);
+        int h1 = (int) h, h2 = (int) (h >>> 32) | 1;
+        int min = Integer.MAX_VALUE;
+        for (int r = 0; r < this.depth; r++) min = Math.min(min, this.counts[r * this.width + ((h1 + r * h2) & (this.width - 1))]);
+        return min;
+    }
+
+    /**
+     * Adds the counts of other
+     * @pre. other has the same depth and width
+     * @post. Every estimate covers the keys added to either sketch
+     */
+    public void merge(CountMinSketch other) {
+        if (other.depth != this.depth || other.width != this.width) throw new IllegalArgumentException("Sketch sizes differ");
+        for (int i = 0; i < this.counts.length; i++) this.counts[i] += other.counts[i];
+        this.total += other.total;
+    }
+
+    public void clear() {
+        Arrays.fill(this.counts, 0);
+        this.total = 0;
+    }
+
+    public long getTotal() { return total; }
+    public int getDepth() { return depth; }
+    public int getWidth() { return width; }
+
+    static long mix(long x) { // 64-bit finaliser shared by the sketches
+        x = (x ^ (x >>> 33)) * 0xff51afd7ed558ccdL;
+        x = (x ^ (x >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return x ^ (x >>> 33);
+    }
+}
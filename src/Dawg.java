@@ -0,0 +1,119 @@
+import java.nio.IntBuffer;
+import java.util.*;
+
+/**
+ * Minimal deterministic automaton (DAWG) accepting exactly the guess list of a Lexicon.
+ * Transitions live in one flat array, next = transitions[state * 26 + letter], so extending a prefix by
+ * one letter is a single array read. State 0 is dead and state 1 accepts; every word has the same length,
+ * so equal suffix sets are merged bottom-up while the automaton is built from the sorted words. Building
+ * copies every word onto the heap, so Model does not build one over an OffHeapLexicon.
+ */
+public class Dawg {
+    // Constants
+    public static final int DEAD = 0;
+    public static final int FINAL = 1;
+    private static final int ALPHABET = 26;
+    private static final Map<Lexicon, Dawg> SHARED = Collections.synchronizedMap(new WeakHashMap<>()); // Dropped with their lexicon
+    // Attributes
+    private final int length; // Letters per word
+    private final int root;
+    private final int[] transitions;
+
+    private Dawg(Lexicon lexicon) {
+        this.length = lexicon.length();
+        long[] keys = new long[lexicon.size()];
+        for (int i = 0; i < keys.length; i++) { // First letter most significant, so keys sort like the words
+            long w = lexicon.packed(i), key = 0;
+            for (int j = 0; j < this.length; j++) key = (key << WordIndex.BITS_PER_LETTER) | WordIndex.letterAt(w, j);
+            keys[i] = key;
+        }
+        Arrays.sort(keys);
+        List<int[]> states = new ArrayList<>();
+        states.add(new int[ALPHABET]); // DEAD
+        states.add(new int[ALPHABET]); // FINAL
+        this.root = keys.length == 0 ? DEAD : build(keys, 0, keys.length, 0, states, new HashMap<>());
+        this.transitions = new int[states.size() * ALPHABET];
+        for (int s = 0; s < states.size(); s++) System.arraycopy(states.get(s), 0, this.transitions, s * ALPHABET, ALPHABET);
+    }
+
+    /**
+     * The automaton of a lexicon's guess list, built once and kept for as long as the lexicon is reachable
+     * @pre. None
+     * @post. None
+     */
+    public static Dawg of(Lexicon lexicon) {
+        return SHARED.computeIfAbsent(lexicon, Dawg::new); // A Dawg keeps no reference to its lexicon
+    }
+
+    private int build(long[] keys, int from, int to, int depth, List<int[]> states, Map<IntBuffer, Integer> register) {
+        if (depth == this.length) return FINAL;
+        int shift = (this.length - 1 - depth) * WordIndex.BITS_PER_LETTER;
+        int[] children = new int[ALPHABET];
+        for (int i = from; i < to; ) {
+            int letter = (int) (keys[i] >>> shift) & WordIndex.LETTER_MASK;
+            int j = i + 1;
+            while (j < to && ((int) (keys[j] >>> shift) & WordIndex.LETTER_MASK) == letter) j++;
+            children[letter] = build(keys, i, j, depth + 1, states, register);
+            i = j;
+        }
+        IntBuffer signature = IntBuffer.wrap(children); // Compares by content, so equal subtrees share a state
+        Integer state = register.get(signature);
+        if (state == null) {
+            state = states.size();
+            states.add(children);
+            register.put(signature, state);
+        }
+        return state;
+    }
+
+    /**
+     * Follows one letter from state
+     * @pre. 0 <= letter < 26
+     * @post. Returns DEAD if no word continues that way
+     */
+    public int step(int state, int letter) {
+        return this.transitions[state * ALPHABET + letter];
+    }
+
+    /**
+     * Returns the state reached by reading prefix from the root
+     * @pre. None
+     * @post. Returns DEAD if no word starts with prefix or it has a character outside [a-z]
+     */
+    public int walk(CharSequence prefix) {
+        int state = this.root;
+        for (int i = 0; i < prefix.length() && state != DEAD; i++) {
+            int c = prefix.charAt(i) - 'a';
+            state = c >= 0 && c < ALPHABET ? step(state, c) : DEAD;
+        }
+        return state;
+    }
+
+    public boolean isPrefix(CharSequence prefix) {
+        return walk(prefix) != DEAD;
+    }
+
+    public boolean contains(CharSequence word) {
+        return word.length() == this.length && walk(word) == FINAL;
+    }
+
+    /**
+     * Number of leading characters of word that some word in the list starts with
+     * @pre. None
+     * @post. Returns word.length() if word is a prefix of a word in the list
+     */
+    public int livePrefixLength(CharSequence word) {
+        int state = this.root;
+        for (int i = 0; i < word.length(); i++) {
+            int c = word.charAt(i) - 'a';
+            state = c >= 0 && c < ALPHABET ? step(state, c) : DEAD;
+            if (state == DEAD) return i;
+        }
+        return word.length();
+    }
+
+    // Getters
+    public int root() { return root; }
+    public int stateCount() { return transitions.length / ALPHABET; }
+    public int length() { return length; }
+}
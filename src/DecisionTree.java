@@ -0,0 +1,321 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Complete solving plan for the answer list: the guess to play at the root, then the guess to play for each
+ * pattern that guess can give, down to the guesses that can only be the answer.
+ * Nodes are stored in flat arrays (guess of each node, then its edges sorted by pattern), so finding the next
+ * guess of a game is one binary search per turn played. The tree is built offline by Builder, which picks each
+ * node's guess with Solver and builds sibling subtrees in parallel, and is loaded from a small binary file.
+ *
+ * File layout (little-endian): magic, version, index checksum, node count, edge count, then the guess and
+ * first edge of each node, the pattern of each edge as a byte and the child of each edge.
+ */
+public class DecisionTree implements Strategy {
+    // Constants
+    private static final int MAGIC = 0x57445452; // "WDTR"
+    private static final int VERSION = 1;
+    private static final int HEADER = 24; // magic, version, checksum, nodes, edges
+    // Attributes
+    private final int[] guesses; // WordIndex position played at each node; node 0 is the root
+    private final int[] firstEdge; // Edges of node n are [firstEdge[n], firstEdge[n + 1])
+    private final byte[] edgePatterns; // Ascending within a node
+    private final int[] edgeChildren;
+
+    private DecisionTree(int[] guesses, int[] firstEdge, byte[] edgePatterns, int[] edgeChildren) {
+        this.guesses = guesses;
+        this.firstEdge = firstEdge;
+        this.edgePatterns = edgePatterns;
+        this.edgeChildren = edgeChildren;
+    }
+
+    /**
+     * Returns the guess to play after the given history
+     * @pre. guesses holds turn WordIndex positions and patterns their Scorer patterns
+     * @post. Returns -1 if the history left the tree (a guess the tree would not play, or an unknown pattern)
+     */
+    public int lookup(int[] guesses, int[] patterns, int turn) {
+        int node = 0;
+        for (int t = 0; t < turn; t++) {
+            if (guesses[t] != this.guesses[node]) return -1;
+            node = child(node, patterns[t]);
+            if (node < 0) return -1;
+        }
+        return this.guesses[node];
+    }
+
+    private int child(int node, int pattern) {
+        int low = this.firstEdge[node], high = this.firstEdge[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int p = this.edgePatterns[mid] & 0xFF;
+            if (p < pattern) low = mid + 1;
+            else if (p > pattern) high = mid - 1;
+            else return this.edgeChildren[mid];
+        }
+        return -1;
+    }
+
+    @Override
+    public int nextGuess(int[] guesses, int[] patterns, int turn) {
+        int guess = lookup(guesses, patterns, turn);
+        return guess >= 0 ? guess : guesses[turn - 1];
+    }
+
+    /**
+     * Number of guesses the tree needs for answer
+     * @pre. answer is one of the answers the tree was built for
+     * @post. Returns -1 if following the tree never plays the answer
+     */
+    public int depth(WordIndex index, int answer) {
+        int node = 0;
+        for (int turn = 1; node >= 0; turn++) {
+            int pattern = Scorer.score(index.word(this.guesses[node]), index.answer(answer));
+            if (pattern == Scorer.ALL_CORRECT) return turn;
+            node = child(node, pattern);
+        }
+        return -1;
+    }
+
+    /**
+     * Writes the tree, tagged with the checksum of the index it was built for
+     * @pre. None
+     * @post. read() of the file with the same index gives an equal tree
+     */
+    public void write(Path file, WordIndex index) throws IOException {
+        int nodes = this.guesses.length, edges = this.edgeChildren.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + nodes * 4 + (nodes + 1) * 4 + edges + edges * 4)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(PatternMatrix.checksum(index)).putInt(nodes).putInt(edges);
+        for (int g : this.guesses) buffer.putInt(g);
+        for (int e : this.firstEdge) buffer.putInt(e);
+        buffer.put(this.edgePatterns);
+        for (int c : this.edgeChildren) buffer.putInt(c);
+        buffer.flip();
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) channel.write(buffer);
+                channel.force(false);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Reads a tree written by write()
+     * @pre. None
+     * @post. Throws IOException if the file is malformed or was built for a different index
+     */
+    public static DecisionTree read(Path file, WordIndex index) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < HEADER || buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+            throw new IOException("Not a decision tree file");
+        if (buffer.getLong() != PatternMatrix.checksum(index)) throw new IOException("Decision tree is for other word lists");
+        int nodes = buffer.getInt(), edges = buffer.getInt();
+        if (nodes < 1 || edges < 0 || buffer.remaining() != nodes * 4 + (nodes + 1) * 4 + edges * 5)
+            throw new IOException("Truncated decision tree file");
+        int[] guesses = new int[nodes];
+        int[] firstEdge = new int[nodes + 1];
+        byte[] patterns = new byte[edges];
+        int[] children = new int[edges];
+        buffer.asIntBuffer().get(guesses);
+        buffer.position(buffer.position() + nodes * 4);
+        buffer.asIntBuffer().get(firstEdge);
+        buffer.position(buffer.position() + (nodes + 1) * 4);
+        buffer.get(patterns);
+        buffer.asIntBuffer().get(children);
+        return new DecisionTree(guesses, firstEdge, patterns, children);
+    }
+
+    public static Path defaultFile(WordIndex index) {
+        return PatternMatrix.cacheDir().resolve(String.format("tree-v%d-%016x.bin", VERSION, PatternMatrix.checksum(index)));
+    }
+
+    /**
+     * Loads the tree for index from the cache directory
+     * @pre. None
+     * @post. Returns null if it has not been built, or was built for other word lists
+     */
+    public static DecisionTree load(WordIndex index) {
+        Path file = defaultFile(index);
+        if (!Files.isRegularFile(file)) return null;
+        try {
+            return read(file, index);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public int size() {
+        return guesses.length;
+    }
+
+    /**
+     * Builds a tree over a set of answers. Each node's guess is the Solver's best guess for the answers that
+     * reach it, so the tree is greedy rather than exhaustively optimal; siblings are built as fork-join tasks.
+     */
+    public static class Builder {
+        private final WordIndex index;
+        private final PatternMatrix matrix; // Null to score with Scorer
+        private final Solver solver;
+        private final AtomicInteger placed = new AtomicInteger(); // Answers that have reached their leaf
+        private final AtomicInteger nodes = new AtomicInteger();
+
+        public Builder(WordIndex index, PatternMatrix matrix) {
+            this.index = index;
+            this.matrix = matrix;
+            this.solver = new Solver(index, matrix, Solver.Metric.ENTROPY, Long.MAX_VALUE);
+        }
+
+        /**
+         * Builds the tree
+         * @pre. answers is a non-empty array of distinct answer positions
+         * @post. depth() of every answer is positive
+         */
+        public DecisionTree build(int[] answers, ForkJoinPool pool) {
+            this.placed.set(0);
+            this.nodes.set(0);
+            Node root = pool.invoke(new Expand(answers));
+            // Flatten breadth first so a node's children are stored together
+            List<Node> order = new ArrayList<>();
+            order.add(root);
+            int edges = 0;
+            for (int n = 0; n < order.size(); n++) {
+                Node node = order.get(n);
+                for (Node child : node.children) order.add(child);
+                edges += node.children.length;
+            }
+            int[] guesses = new int[order.size()];
+            int[] firstEdge = new int[order.size() + 1];
+            byte[] patterns = new byte[edges];
+            int[] children = new int[edges];
+            int e = 0, next = 1;
+            for (int n = 0; n < order.size(); n++) {
+                Node node = order.get(n);
+                guesses[n] = node.guess;
+                firstEdge[n] = e;
+                for (int c = 0; c < node.children.length; c++, e++) {
+                    patterns[e] = (byte) node.patterns[c];
+                    children[e] = next++;
+                }
+            }
+            firstEdge[order.size()] = e;
+            return new DecisionTree(guesses, firstEdge, patterns, children);
+        }
+
+        public int getPlaced() { return placed.get(); }
+        public int getNodes() { return nodes.get(); }
+
+        private int pattern(int g, int a) {
+            return this.matrix != null ? this.matrix.get(g, a) : Scorer.score(this.index.word(g), this.index.answer(a));
+        }
+
+        private final class Expand extends RecursiveTask<Node> {
+            private static final long serialVersionUID = 1L;
+            private final int[] answers;
+
+            Expand(int[] answers) {
+                this.answers = answers;
+            }
+
+            @Override
+            protected Node compute() {
+                nodes.incrementAndGet();
+                int guess = solver.best(this.answers);
+                int[] counts = new int[Scorer.PATTERNS];
+                for (int a : this.answers) counts[pattern(guess, a)]++;
+                if (counts[Scorer.ALL_CORRECT] > 0) placed.incrementAndGet();
+                int[][] buckets = new int[Scorer.PATTERNS][];
+                int branches = 0;
+                for (int p = 0; p < Scorer.ALL_CORRECT; p++) if (counts[p] > 0) {
+                    buckets[p] = new int[counts[p]];
+                    branches++;
+                }
+                Arrays.fill(counts, 0);
+                for (int a : this.answers) {
+                    int p = pattern(guess, a);
+                    if (p != Scorer.ALL_CORRECT) buckets[p][counts[p]++] = a;
+                }
+                Expand[] tasks = new Expand[branches];
+                int[] patterns = new int[branches];
+                for (int p = 0, b = 0; p < Scorer.ALL_CORRECT; p++) if (buckets[p] != null) {
+                    patterns[b] = p;
+                    tasks[b++] = new Expand(buckets[p]);
+                }
+                invokeAll(tasks);
+                Node[] children = new Node[branches];
+                for (int b = 0; b < branches; b++) children[b] = tasks[b].join();
+                return new Node(guess, patterns, children);
+            }
+        }
+    }
+
+    private static final class Node { // Builder-only; flattened into the arrays once complete
+        final int guess;
+        final int[] patterns; // Ascending
+        final Node[] children;
+
+        Node(int guess, int[] patterns, Node[] children) {
+            this.guess = guess;
+            this.patterns = patterns;
+            this.children = children;
+        }
+    }
+
+    /**
+     * Builds the tree over every answer, reporting progress each second, writes it to args[0] (default: the
+     * cache directory) and prints the average number of guesses
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        WordIndex index = WordIndex.shared();
+        PatternMatrix matrix = PatternMatrix.load(index);
+        Builder builder = new Builder(index, matrix);
+        int[] answers = new int[index.answerCount()];
+        for (int a = 0; a < answers.length; a++) answers[a] = a;
+        long start = System.nanoTime();
+        Thread progress = new Thread(() -> {
+            try {
+                while (true) {
+                    TimeUnit.SECONDS.sleep(1);
+                    System.err.printf("%d/%d answers placed, %d nodes, %ds%n", builder.getPlaced(), answers.length,
+                            builder.getNodes(), TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+                }
+            } catch (InterruptedException e) {
+                // Build finished
+            }
+        }, "tree-progress");
+        progress.setDaemon(true);
+        progress.start();
+        DecisionTree tree = builder.build(answers, ForkJoinPool.commonPool());
+        progress.interrupt();
+        progress.join();
+
+        Path file = args.length > 0 ? Paths.get(args[0]) : defaultFile(index);
+        tree.write(file, index);
+        int[] histogram = new int[16];
+        long total = 0;
+        for (int a : answers) {
+            int depth = tree.depth(index, a);
+            total += depth;
+            histogram[Math.min(depth, histogram.length - 1)]++;
+        }
+        System.out.printf("nodes=%d bytes=%d average=%.4f elapsed=%dms%n", tree.size(), Files.size(file),
+                (double) total / answers.length, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        for (int d = 1; d < histogram.length; d++) if (histogram[d] > 0) System.out.printf("%d: %d%n", d, histogram[d]);
+        System.out.println("Written to " + file);
+    }
+}
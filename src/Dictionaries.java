@@ -0,0 +1,110 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Word lists of mixed lengths split into one Lexicon per length, so a game only ever looks words up in the
+ * list for its own length. Words of up to six letters go into a WordIndex, longer ones into a LongWordIndex.
+ * Files are read through WordStream, so lines are normalised the same way and those that are not MIN_LENGTH
+ * to MAX_LENGTH letters are skipped. stream() builds OffHeapLexicons instead for lists too large for the heap.
+ */
+public class Dictionaries {
+    // Constants
+    public static final int MIN_LENGTH = 4;
+    public static final int MAX_LENGTH = LongWordIndex.MAX_LENGTH;
+    // Attributes
+    private final Lexicon[] byLength; // Null for lengths with no words
+
+    private Dictionaries(Lexicon[] byLength) {
+        this.byLength = byLength;
+    }
+
+    private Dictionaries(Words answers, Words guesses) {
+        this(new Lexicon[MAX_LENGTH + 1]);
+        for (int n = MIN_LENGTH; n <= MAX_LENGTH; n++) {
+            if (answers.counts[n] + guesses.counts[n] == 0) continue;
+            if (n <= WordIndex.MAX_LENGTH)
+                this.byLength[n] = new WordIndex(n, answers.ints(n), guesses.ints(n));
+            else this.byLength[n] = new LongWordIndex(n, answers.longs(n), guesses.longs(n));
+        }
+    }
+
+    /**
+     * Reads an answer list and a guess list, each holding words of any supported length
+     * @pre. Both files exist and contain one word per line
+     * @post. forLength(n) holds every n-letter word of both files
+     */
+    public static Dictionaries load(Path answerFile, Path wordsFile) throws IOException {
+        return new Dictionaries(Words.read(answerFile), Words.read(wordsFile));
+    }
+
+    /**
+     * Streams an answer list and a guess list into off-heap lexicons, deduplicating as the words arrive.
+     * Heap use does not grow with the size of the files.
+     * @pre. Both files exist and contain one word per line
+     * @post. forLength(n) holds every n-letter word of both files, answers first
+     */
+    public static Dictionaries stream(Path answerFile, Path wordsFile) throws IOException {
+        OffHeapLexicon[] lexicons = new OffHeapLexicon[MAX_LENGTH + 1];
+        WordStream.Sink sink = (word, n) -> {
+            if (lexicons[n] == null) lexicons[n] = new OffHeapLexicon(n);
+            lexicons[n].add(word);
+        };
+        WordStream.read(answerFile, MIN_LENGTH, MAX_LENGTH, sink);
+        for (OffHeapLexicon lexicon : lexicons) if (lexicon != null) lexicon.endAnswers();
+        WordStream.read(wordsFile, MIN_LENGTH, MAX_LENGTH, sink);
+        return new Dictionaries(lexicons);
+    }
+
+    /**
+     * Dictionaries over the default text lists
+     * @pre. None
+     * @post. None
+     */
+    public static Dictionaries load() throws IOException {
+        return load(Paths.get(Model.ANSWER_FILE), Paths.get(Model.WORDS_FILE));
+    }
+
+    /**
+     * Returns the words of length letters
+     * @pre. None
+     * @post. Throws IllegalArgumentException if there are none
+     */
+    public Lexicon forLength(int length) {
+        Lexicon lexicon = length >= MIN_LENGTH && length <= MAX_LENGTH ? this.byLength[length] : null;
+        if (lexicon == null) throw new IllegalArgumentException("No " + length + "-letter words in the dictionary");
+        return lexicon;
+    }
+
+    public boolean hasLength(int length) {
+        return length >= MIN_LENGTH && length <= MAX_LENGTH && this.byLength[length] != null;
+    }
+
+    private static final class Words { // Packed words of one file, bucketed by length in file order
+        final long[][] packed = new long[MAX_LENGTH + 1][];
+        final int[] counts = new int[MAX_LENGTH + 1];
+
+        static Words read(Path file) throws IOException {
+            Words words = new Words();
+            WordStream.read(file, MIN_LENGTH, MAX_LENGTH, words::add);
+            return words;
+        }
+
+        void add(long w, int n) {
+            if (this.packed[n] == null) this.packed[n] = new long[1024];
+            else if (this.counts[n] == this.packed[n].length) this.packed[n] = Arrays.copyOf(this.packed[n], this.counts[n] * 2);
+            this.packed[n][this.counts[n]++] = w;
+        }
+
+        long[] longs(int n) {
+            return this.counts[n] == 0 ? new long[0] : Arrays.copyOf(this.packed[n], this.counts[n]);
+        }
+
+        int[] ints(int n) {
+            int[] words = new int[this.counts[n]];
+            for (int i = 0; i < words.length; i++) words[i] = (int) this.packed[n][i];
+            return words;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Compiles the text word lists into the binary dictionary read by WordIndex.shared().
+ * Run it from the project root whenever common.txt or words.txt change; until then the shared index
+ * notices that their sizes differ and parses them instead:
+ * java DictionaryCompiler [answerFile wordsFile outputFile]
+ */
+public class DictionaryCompiler {
+
+    public static void main(String[] args) throws IOException {
+        String answerFile = args.length == 3 ? args[0] : Model.ANSWER_FILE;
+        String wordsFile = args.length == 3 ? args[1] : Model.WORDS_FILE;
+        Path output = Paths.get(args.length == 3 ? args[2] : WordIndex.DICTIONARY_FILE);
+        WordIndex index = WordIndex.load(answerFile, wordsFile);
+        index.write(output, Paths.get(answerFile), Paths.get(wordsFile));
+        System.out.println("Wrote " + index.size() + " words (" + index.answerCount() + " answers) to " + output);
+    }
+}
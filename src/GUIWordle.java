@@ -3,15 +3,16 @@ import java.util.Scanner;
 
 public class GUIWordle {
 
-    public static void main(String[] args) throws IOException {
+    public static void main(String[] args) throws IOException { // Options are listed in GameOptions
+        GameOptions options = GameOptions.parse(args);
         Scanner scanner = new Scanner(System.in);
         int randomMode, spoilerMode, strictMode;
 
         // Choose various game modes to play
         do {
-            System.out.println("Press 1 for a random word or 2 for a fixed word");
+            System.out.println("Press 1 for a random word, 2 for a fixed word or 3 for an adversarial word");
             randomMode = scanner.nextInt();
-        } while (randomMode != 1 && randomMode != 2);
+        } while (randomMode != 1 && randomMode != 2 && randomMode != 3);
         do {
             System.out.println("Press 1 for spoiler mode or 2 for secret mode");
             spoilerMode = scanner.nextInt();
@@ -21,7 +22,13 @@ public class GUIWordle {
             strictMode = scanner.nextInt();
         } while (strictMode != 1 && strictMode != 2);
 
-        Model model = new Model(randomMode, spoilerMode, strictMode);
+        if (options.getBoards() > 1) {
+            MultiBoardModel model = options.createMultiBoardModel(randomMode, strictMode);
+            if (spoilerMode == 1) System.out.println("The answers are " + String.join(", ", model.getAnswers()));
+            new MultiBoardView(model);
+            return;
+        }
+        Model model = options.createModel(randomMode, spoilerMode, strictMode);
         if (model.isSpoilerFlag()) System.out.println("The answer is \"" + model.letterListToString(model.getAnswer()) + "\"");
         Controller controller = new Controller(model);
         View view = new View(model, controller);
@@ -0,0 +1,107 @@
+/**
+ * Something that happened in a Model, delivered to every GameListener registered on it.
+ * Each kind of event is its own immutable class so listeners can pick out only the ones they care about.
+ */
+public abstract class GameEvent {
+    private final int turn; // Turn the model was on when the event happened
+
+    GameEvent(int turn) {
+        this.turn = turn;
+    }
+
+    public int getTurn() { return turn; }
+
+    /**
+     * A guess was submitted and scored. The delta says which tiles and keys changed.
+     */
+    public static final class GuessScored extends GameEvent {
+        private final GuessDelta delta;
+
+        public GuessScored(GuessDelta delta) {
+            super(delta.getTurn());
+            this.delta = delta;
+        }
+
+        public GuessDelta getDelta() { return delta; }
+    }
+
+    /**
+     * A guess was scored against every board of a MultiBoardModel.
+     */
+    public static final class BoardsScored extends GameEvent {
+        private final long guess; // Packed guess
+        private final int[] patterns; // Pattern per board, -1 for boards solved by an earlier guess
+        private final int solved; // Bit b set once board b is solved
+
+        public BoardsScored(int turn, long guess, int[] patterns, int solved) {
+            super(turn);
+            this.guess = guess;
+            this.patterns = patterns;
+            this.solved = solved;
+        }
+
+        public long getGuess() { return guess; }
+        public int getPattern(int board) { return patterns[board]; }
+        public int getBoards() { return patterns.length; }
+        public int getSolved() { return solved; }
+        public boolean isSolved(int board) { return (solved & (1 << board)) != 0; }
+    }
+
+    /**
+     * The last scored guess was the answer, or solved the last open board.
+     */
+    public static final class GameWon extends GameEvent {
+        private final String answer;
+
+        public GameWon(int turn, String answer) {
+            super(turn);
+            this.answer = answer;
+        }
+
+        public String getAnswer() { return answer; }
+    }
+
+    /**
+     * The player ran out of guesses.
+     */
+    public static final class GameLost extends GameEvent {
+        private final String answer;
+
+        public GameLost(int turn, String answer) {
+            super(turn);
+            this.answer = answer;
+        }
+
+        public String getAnswer() { return answer; }
+    }
+
+    /**
+     * The model was initialised for a new game.
+     */
+    public static final class GameReset extends GameEvent {
+        public GameReset() {
+            super(0);
+        }
+    }
+
+    /**
+     * A letter was added to or removed from the current guess.
+     */
+    public static final class LetterTyped extends GameEvent {
+        private final int position; // Tile the letter was typed into or removed from
+        private final int letter; // Letter code, or -1 when the letter was removed
+        private final boolean live; // Whether the guess typed so far can still become a valid word
+
+        public LetterTyped(int turn, int position, int letter, boolean live) {
+            super(turn);
+            this.position = position;
+            this.letter = letter;
+            this.live = live;
+        }
+
+        public int getPosition() { return position; }
+        public int getLetter() { return letter; }
+        public boolean isRemoved() { return letter < 0; }
+        public boolean isLive() { return live; }
+    }
+}
@@ -0,0 +1,51 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Copy-on-write set of GameListeners. Registration swaps in a new array with a compare-and-set, so
+ * publishing never takes a lock and a listener added or removed mid-publish does not disturb it.
+ */
+public class GameEventBus {
+    // Constants
+    private static final GameListener[] NONE = new GameListener[0];
+    // Attributes
+    private final AtomicReference<GameListener[]> listeners = new AtomicReference<>(NONE);
+
+    public void addListener(GameListener listener) {
+        GameListener[] current, next;
+        do {
+            current = this.listeners.get();
+            next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = listener;
+        } while (!this.listeners.compareAndSet(current, next));
+    }
+
+    public void removeListener(GameListener listener) {
+        GameListener[] current, next;
+        do {
+            current = this.listeners.get();
+            int i = 0;
+            while (i < current.length && current[i] != listener) i++;
+            if (i == current.length) return;
+            next = new GameListener[current.length - 1];
+            System.arraycopy(current, 0, next, 0, i);
+            System.arraycopy(current, i + 1, next, i, next.length - i);
+        } while (!this.listeners.compareAndSet(current, next));
+    }
+
+    /**
+     * True when publishing would reach somebody, so callers can skip building an event nobody reads
+     */
+    public boolean hasListeners() {
+        return this.listeners.get().length > 0;
+    }
+
+    /**
+     * Hands event to every listener registered when the call started
+     * @pre. None
+     * @post. None
+     */
+    public void publish(GameEvent event) {
+        for (GameListener listener : this.listeners.get()) listener.onEvent(event);
+    }
+}
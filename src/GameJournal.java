@@ -0,0 +1,305 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only binary journal of game events with group commit and periodic snapshots.
+ * Callers copy fixed-size records into an in-memory batch under a short lock; a single writer thread swaps
+ * the batch out, writes it with one FileChannel write and one force, then wakes every caller waiting in sync().
+ * The writer also keeps the unfinished games in memory and every snapshotEvery events dumps them to a
+ * snapshot file, so replay maps the snapshot and only the journal written after it.
+ * An event is only durable once sync() has returned; if the writer fails, every later append or sync throws.
+ *
+ * Record layout (16 bytes): type, pattern, turns, won, value (packed answer or guess), game id. A game started for
+ * a player id is followed by two PLAYER records holding the low and high halves of the id in value, with the
+ * half in the pattern byte; all three go into the same group commit.
+ */
+public class GameJournal implements Closeable {
+    // Constants
+    public static final String JOURNAL_FILE = "journal.log";
+    public static final String SNAPSHOT_FILE = "snapshot.bin";
+    public static final byte STARTED = 1;
+    public static final byte GUESSED = 2;
+    public static final byte ENDED = 3;
+    public static final byte PLAYER = 4;
+    private static final int RECORD = 16;
+    private static final int BATCH = 4096; // Records per group commit
+    private static final int SNAPSHOT_MAGIC = 0x57534E50; // "WSNP"
+    private static final int SNAPSHOT_VERSION = 2; // Version 1 had no player ids
+    // Attributes
+    private final Path dir;
+    private final FileChannel channel;
+    private final long snapshotEvery; // Events between snapshots
+    private final Map<Long, GameRecord> restored; // Unfinished games found when the journal was opened
+    private final Map<Long, GameRecord> live; // Unfinished games, only touched by the writer thread
+    private final Object lock = new Object();
+    private ByteBuffer active = ByteBuffer.allocateDirect(BATCH * RECORD); // Filled by callers
+    private ByteBuffer flushing = ByteBuffer.allocateDirect(BATCH * RECORD); // Written by the writer thread
+    private long appended; // Events accepted so far
+    private long durable; // Events written and forced to disk
+    private long sinceSnapshot;
+    private boolean closed;
+    private boolean stopped; // The writer thread has finished, drained or failed
+    private IOException failure; // Why the writer thread stopped, null while it runs
+    private final Thread writer;
+
+    private GameJournal(Path dir, Map<Long, GameRecord> restored, long snapshotEvery) throws IOException {
+        this.dir = dir;
+        this.restored = Collections.unmodifiableMap(restored);
+        this.live = new HashMap<>(restored.size() * 2);
+        for (GameRecord game : restored.values()) this.live.put(game.getId(), new GameRecord(game));
+        this.snapshotEvery = snapshotEvery;
+        this.channel = FileChannel.open(dir.resolve(JOURNAL_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = this.channel.size();
+        this.channel.truncate(size - size % RECORD); // Drop a record torn by a crash
+        this.channel.position(this.channel.size());
+        this.writer = new Thread(this::writeLoop, "game-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Opens the journal in dir, replaying what is already there
+     * @pre. None
+     * @post. getRestoredGames() holds every game that was started but not ended
+     */
+    public static GameJournal open(Path dir, long snapshotEvery) throws IOException {
+        Files.createDirectories(dir);
+        return new GameJournal(dir, replay(dir), snapshotEvery);
+    }
+
+    public Map<Long, GameRecord> getRestoredGames() {
+        return restored;
+    }
+
+    // Event appenders
+    public void gameStarted(long id, int answer) {
+        gameStarted(id, answer, 0);
+    }
+
+    public void gameStarted(long id, int answer, long player) { // Player 0 when the game is not counted for anyone
+        synchronized (this.lock) {
+            reserve(player == 0 ? 1 : 3);
+            put(STARTED, id, answer, 0, 0, false);
+            if (player != 0) {
+                put(PLAYER, id, (int) player, 0, 0, false);
+                put(PLAYER, id, (int) (player >>> 32), 1, 0, false);
+            }
+            this.lock.notifyAll();
+        }
+    }
+
+    public void guessSubmitted(long id, int guess, int pattern) {
+        append(GUESSED, id, guess, pattern, 0, false);
+    }
+
+    public void gameEnded(long id, boolean won, int turns) {
+        append(ENDED, id, 0, 0, turns, won);
+    }
+
+    private void append(byte type, long id, int value, int pattern, int turns, boolean won) {
+        synchronized (this.lock) {
+            reserve(1);
+            put(type, id, value, pattern, turns, won);
+            this.lock.notifyAll();
+        }
+    }
+
+    private void reserve(int records) { // Called holding the lock; waits for room for records in the active batch
+        checkWriter();
+        while (this.active.remaining() < records * RECORD) { // Batch is full, wait for the writer to swap it out
+            this.lock.notifyAll();
+            waitUninterruptibly();
+            checkWriter();
+        }
+    }
+
+    private void put(byte type, long id, int value, int pattern, int turns, boolean won) { // Called holding the lock
+        this.active.put(type).put((byte) pattern).put((byte) turns).put((byte) (won ? 1 : 0))
+                .putInt(value).putLong(id);
+        this.appended++;
+    }
+
+    /**
+     * Blocks until every event appended before the call is on disk
+     * @pre. None
+     * @post. Throws UncheckedIOException if the writer failed before writing them
+     */
+    public void sync() {
+        synchronized (this.lock) {
+            long target = this.appended;
+            while (this.durable < target && !this.stopped) waitUninterruptibly();
+            if (this.durable < target) checkWriter();
+        }
+    }
+
+    private void checkWriter() { // Called holding the lock
+        if (this.failure != null) throw new UncheckedIOException("Journal writer failed", this.failure);
+        if (this.closed || this.stopped) throw new IllegalStateException("Journal is closed");
+    }
+
+    private void waitUninterruptibly() {
+        try {
+            this.lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                long target;
+                synchronized (this.lock) {
+                    while (this.active.position() == 0 && !this.closed) this.lock.wait();
+                    if (this.active.position() == 0) return; // Closed and drained
+                    ByteBuffer full = this.active;
+                    this.active = this.flushing;
+                    this.flushing = full;
+                    target = this.appended;
+                    this.lock.notifyAll(); // Callers blocked on a full batch can continue
+                }
+                this.flushing.flip();
+                apply(this.flushing.duplicate(), this.live);
+                this.sinceSnapshot += this.flushing.remaining() / RECORD;
+                while (this.flushing.hasRemaining()) this.channel.write(this.flushing);
+                this.channel.force(false);
+                this.flushing.clear();
+                synchronized (this.lock) {
+                    this.durable = target;
+                    this.lock.notifyAll();
+                }
+                if (this.sinceSnapshot >= this.snapshotEvery) {
+                    writeSnapshot(this.dir, this.live, this.channel.position());
+                    this.sinceSnapshot = 0;
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            synchronized (this.lock) {
+                this.failure = e;
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        } finally {
+            synchronized (this.lock) {
+                this.stopped = true;
+                this.lock.notifyAll(); // Release append() and sync() callers if the writer dies
+            }
+        }
+    }
+
+    private static void apply(ByteBuffer events, Map<Long, GameRecord> games) {
+        while (events.remaining() >= RECORD) {
+            int at = events.position();
+            byte type = events.get(at);
+            int value = events.getInt(at + 4);
+            long id = events.getLong(at + 8);
+            switch (type) {
+                case STARTED:
+                    games.put(id, new GameRecord(id, value));
+                    break;
+                case GUESSED:
+                    GameRecord game = games.get(id);
+                    if (game != null && game.getTurns() < Model.NUMGUESSES) game.addGuess(value, events.get(at + 1) & 0xFF);
+                    break;
+                case ENDED:
+                    games.remove(id);
+                    break;
+                case PLAYER:
+                    GameRecord started = games.get(id);
+                    if (started == null) break;
+                    long half = value & 0xFFFFFFFFL;
+                    started.setPlayer(events.get(at + 1) == 0 ? started.getPlayer() & ~0xFFFFFFFFL | half
+                            : started.getPlayer() & 0xFFFFFFFFL | half << 32);
+                    break;
+            }
+            events.position(at + RECORD);
+        }
+    }
+
+    private static void writeSnapshot(Path dir, Map<Long, GameRecord> games, long journalOffset) throws IOException {
+        int size = 20;
+        for (GameRecord game : games.values()) size += 21 + game.getTurns() * 5;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putLong(journalOffset).putInt(games.size());
+        for (GameRecord game : games.values()) {
+            buffer.putLong(game.getId()).putLong(game.getPlayer()).putInt(game.getAnswer()).put((byte) game.getTurns());
+            for (int t = 0; t < game.getTurns(); t++) buffer.putInt(game.getGuess(t)).put((byte) game.getPattern(t));
+        }
+        buffer.flip();
+        Path tmp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) out.write(buffer);
+            out.force(false);
+        }
+        Files.move(tmp, dir.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Rebuilds every unfinished game from the latest snapshot plus the journal written after it
+     * @pre. None
+     * @post. Returned map is empty if dir holds no journal
+     */
+    public static Map<Long, GameRecord> replay(Path dir) throws IOException {
+        Map<Long, GameRecord> games = new HashMap<>();
+        long offset = 0;
+        Path snapshot = dir.resolve(SNAPSHOT_FILE);
+        if (Files.isRegularFile(snapshot)) {
+            try (FileChannel in = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+                if (buffer.getInt() != SNAPSHOT_MAGIC) throw new IOException("Not a snapshot file");
+                int version = buffer.getInt();
+                if (version < 1 || version > SNAPSHOT_VERSION) throw new IOException("Unknown snapshot version " + version);
+                offset = buffer.getLong();
+                int count = buffer.getInt();
+                games = new HashMap<>(count * 2);
+                for (int i = 0; i < count; i++) {
+                    long id = buffer.getLong();
+                    long player = version > 1 ? buffer.getLong() : 0;
+                    GameRecord game = new GameRecord(id, buffer.getInt());
+                    game.setPlayer(player);
+                    int turns = buffer.get();
+                    for (int t = 0; t < turns; t++) game.addGuess(buffer.getInt(), buffer.get() & 0xFF);
+                    games.put(game.getId(), game);
+                }
+            }
+        }
+        Path journal = dir.resolve(JOURNAL_FILE);
+        if (Files.isRegularFile(journal)) {
+            try (FileChannel in = FileChannel.open(journal, StandardOpenOption.READ)) {
+                long end = in.size() - in.size() % RECORD;
+                if (end > offset) apply(in.map(FileChannel.MapMode.READ_ONLY, offset, end - offset), games);
+            }
+        }
+        return games;
+    }
+
+    /**
+     * Writes out every pending event, stops the writer thread and closes the file
+     * @pre. None
+     * @post. Further appends throw IllegalStateException
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this.lock) {
+            this.closed = true;
+            this.lock.notifyAll();
+        }
+        try {
+            this.writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.channel.close();
+    }
+}
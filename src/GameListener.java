@@ -0,0 +1,20 @@
+import java.util.List;
+
+/**
+ * Receives the events of a Model. Listeners are called on the thread that changed the model unless they are
+ * wrapped in an AsyncGameListener, so they should return quickly.
+ */
+@FunctionalInterface
+public interface GameListener {
+
+    void onEvent(GameEvent event);
+
+    /**
+     * Receives several events at once, in the order they happened
+     * @pre. None
+     * @post. Every event has been handled
+     */
+    default void onEvents(List<GameEvent> events) {
+        for (GameEvent event : events) onEvent(event);
+    }
+}
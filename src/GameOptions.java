@@ -0,0 +1,115 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command line options shared by CLIWordle and GUIWordle.
+ *
+ * --length N       letters per word, 4 to 11 (default 5)
+ * --guesses N      guesses per game, 1 to GameState.MAX_GUESSES (default Model.NUMGUESSES, or boards + 5 with --boards)
+ * --boards N       play N boards at once, 2 to 32
+ * --answers FILE   answer list, words of any supported length (default Model.ANSWER_FILE)
+ * --words FILE     guess list, words of any supported length (default Model.WORDS_FILE)
+ * --answer WORD    answer used in fixed-word mode (default Model.FIXED_ANSWER), comma-separated with --boards,
+ *                  where boards without one of these words get random answers
+ * --batch SOURCE   CLIWordle only: play the records of SOURCE ("-" for stdin) without prompts, see BatchMode
+ * --strict N       batch mode: 1 only accepts guesses in the guess list (default), 2 accepts any word
+ */
+public class GameOptions {
+    private int wordLength = WordIndex.WORD_LENGTH;
+    private int numGuesses; // 0 until set, then the default depends on the number of boards
+    private int boards = 1;
+    private String answerFile; // Null for the default list
+    private String wordsFile; // Null for the default list
+    private String fixedAnswer = Model.FIXED_ANSWER;
+    private String batchSource; // Null for interactive play
+    private int strictMode = 1;
+
+    /**
+     * Reads the options from args
+     * @pre. None
+     * @post. Throws IllegalArgumentException on an unknown option or a value out of range
+     */
+    public static GameOptions parse(String[] args) {
+        GameOptions options = new GameOptions();
+        for (int i = 0; i < args.length; i++) {
+            String flag = args[i];
+            if (i + 1 == args.length) throw new IllegalArgumentException("Missing value for " + flag);
+            String value = args[++i];
+            switch (flag) {
+                case "--length":
+                    options.wordLength = Integer.parseInt(value);
+                    if (options.wordLength < Dictionaries.MIN_LENGTH || options.wordLength > Dictionaries.MAX_LENGTH)
+                        throw new IllegalArgumentException("Word length must be " + Dictionaries.MIN_LENGTH + " to " + Dictionaries.MAX_LENGTH);
+                    break;
+                case "--guesses":
+                    options.numGuesses = Integer.parseInt(value);
+                    if (options.numGuesses < 1 || options.numGuesses > GameState.MAX_GUESSES) // Every game has a GameState
+                        throw new IllegalArgumentException("Guesses must be 1 to " + GameState.MAX_GUESSES);
+                    break;
+                case "--boards":
+                    options.boards = Integer.parseInt(value);
+                    if (options.boards < MultiBoardModel.MIN_BOARDS || options.boards > MultiBoardModel.MAX_BOARDS)
+                        throw new IllegalArgumentException("Boards must be " + MultiBoardModel.MIN_BOARDS + " to " + MultiBoardModel.MAX_BOARDS);
+                    break;
+                case "--answers":
+                    options.answerFile = value;
+                    break;
+                case "--words":
+                    options.wordsFile = value;
+                    break;
+                case "--answer":
+                    options.fixedAnswer = value.toLowerCase();
+                    break;
+                case "--batch":
+                    options.batchSource = value;
+                    break;
+                case "--strict":
+                    options.strictMode = Integer.parseInt(value);
+                    if (options.strictMode != 1 && options.strictMode != 2) throw new IllegalArgumentException("Strict mode must be 1 or 2");
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + flag);
+            }
+        }
+        if (options.boards > 1 && options.fixedAnswer.split(",").length > options.boards)
+            throw new IllegalArgumentException("More answers than boards");
+        return options;
+    }
+
+    /**
+     * Returns the words of the chosen length. The five-letter default lists come from the shared binary index,
+     * other lengths from the default text lists split by length, and lists given on the command line, which
+     * may be very large, are streamed into off-heap storage.
+     * @pre. None
+     * @post. Throws IllegalArgumentException if the lists have no words of the chosen length
+     */
+    public Lexicon lexicon() throws IOException {
+        if (this.wordLength == WordIndex.WORD_LENGTH && this.answerFile == null && this.wordsFile == null)
+            return WordIndex.shared();
+        Path answers = Paths.get(this.answerFile != null ? this.answerFile : Model.ANSWER_FILE);
+        Path words = Paths.get(this.wordsFile != null ? this.wordsFile : Model.WORDS_FILE);
+        if (this.answerFile == null && this.wordsFile == null) return Dictionaries.load(answers, words).forLength(this.wordLength);
+        return Dictionaries.stream(answers, words).forLength(this.wordLength);
+    }
+
+    public Model createModel(int randomMode, int spoilerMode, int strictMode) throws IOException {
+        return new Model(randomMode, spoilerMode, strictMode, this.fixedAnswer, lexicon(), getNumGuesses());
+    }
+
+    public MultiBoardModel createMultiBoardModel(int randomMode, int strictMode) throws IOException {
+        String[] answers = randomMode == 2 ? this.fixedAnswer.split(",") : null; // Adversarial boards are random
+        return new MultiBoardModel(lexicon(), this.boards, getNumGuesses(), strictMode, answers);
+    }
+
+    // Getters
+    public int getWordLength() { return wordLength; }
+    public int getNumGuesses() {
+        if (this.numGuesses > 0) return this.numGuesses;
+        return this.boards > 1 ? this.boards + 5 : Model.NUMGUESSES;
+    }
+    public int getBoards() { return boards; }
+    public String getFixedAnswer() { return fixedAnswer; }
+    public String getBatchSource() { return batchSource; }
+    public int getStrictMode() { return strictMode; }
+}
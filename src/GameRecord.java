@@ -0,0 +1,72 @@
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Compact state of one unfinished game as rebuilt from the journal: the packed answer, the player it counts
+ * for, and the packed guesses and Scorer patterns submitted so far. A Model is only built from it when the game is resumed.
+ */
+public class GameRecord {
+    private final long id;
+    private final int answer; // Packed answer
+    private long player; // PlayerStats id, 0 when the game is not counted for anyone
+    private final int[] guesses = new int[Model.NUMGUESSES]; // Packed guesses
+    private final byte[] patterns = new byte[Model.NUMGUESSES];
+    private int turns;
+
+    public GameRecord(long id, int answer) {
+        this.id = id;
+        this.answer = answer;
+    }
+
+    public GameRecord(GameRecord other) {
+        this(other.id, other.answer);
+        this.player = other.player;
+        for (int t = 0; t < other.turns; t++) addGuess(other.guesses[t], other.getPattern(t));
+    }
+
+    /**
+     * Records a submitted guess
+     * @pre. getTurns() < Model.NUMGUESSES
+     * @post. getTurns() has increased by one
+     */
+    public void addGuess(int guess, int pattern) {
+        this.guesses[this.turns] = guess;
+        this.patterns[this.turns] = (byte) pattern;
+        this.turns++;
+    }
+
+    /**
+     * Builds a Model in the same position as this game
+     * @pre. None
+     * @post. Returned model has getTurns() submitted guesses against the recorded answer
+     */
+    public Model toModel(int strictMode) throws IOException {
+        Model model = new Model(2, 2, strictMode, WordIndex.unpack(this.answer));
+        for (int t = 0; t < this.turns; t++) {
+            model.submitWord(WordIndex.unpack(this.guesses[t]));
+            model.submitGuess();
+        }
+        return model;
+    }
+
+    /**
+     * Immutable state of this game, without building a Model
+     * @pre. None
+     * @post. Returned state has getTurns() turns
+     */
+    public GameState toState() {
+        return GameState.replay(this.answer, WordIndex.WORD_LENGTH, Model.NUMGUESSES, Arrays.copyOf(this.guesses, this.turns));
+    }
+
+    public void setPlayer(long player) {
+        this.player = player;
+    }
+
+    // Getters
+    public long getId() { return id; }
+    public long getPlayer() { return player; }
+    public int getAnswer() { return answer; }
+    public int getTurns() { return turns; }
+    public int getGuess(int turn) { return guesses[turn]; }
+    public int getPattern(int turn) { return patterns[turn] & 0xFF; }
+}
@@ -0,0 +1,137 @@
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of one game: the packed answer, the packed guesses and Scorer patterns so far and the
+ * keyboard state of every letter. apply() returns a new state and leaves this one alone, copying arrays bounded
+ * by the number of guesses and the alphabet, so states can be forked and shared between threads without locks.
+ * A five-letter game of six guesses holds 4 bytes of answer, 24 of guesses, 12 of patterns and 26 of keys.
+ */
+public final class GameState {
+    // Constants
+    public static final int MAX_GUESSES = Byte.MAX_VALUE; // Guesses allowed are kept in a byte
+    private static final byte[] NO_KEYS = new byte[26]; // Every letter UNASSIGNED
+    private static final int[] NO_GUESSES = new int[0];
+    private static final short[] NO_PATTERNS = new short[0];
+    // Attributes
+    private final int answer; // Packed as in WordIndex
+    private final byte length; // Letters per word
+    private final byte numGuesses; // Guesses allowed
+    private final int[] guesses; // Packed guess of each turn, one element per turn played
+    private final short[] patterns; // Scorer pattern of each turn
+    private final byte[] keys; // Model letter state of each letter, shared between states that agree on it
+
+    private GameState(int answer, int length, int numGuesses, int[] guesses, short[] patterns, byte[] keys) {
+        this.answer = answer;
+        this.length = (byte) length;
+        this.numGuesses = (byte) numGuesses;
+        this.guesses = guesses;
+        this.patterns = patterns;
+        this.keys = keys;
+    }
+
+    /**
+     * State before the first guess of a five-letter game of Model.NUMGUESSES guesses
+     * @pre. answer is a packed five-letter word
+     * @post. getTurns() == 0
+     */
+    public static GameState start(int answer) {
+        return start(answer, WordIndex.WORD_LENGTH, Model.NUMGUESSES);
+    }
+
+    /**
+     * State before the first guess
+     * @pre. answer is a packed word of length letters, 1 <= length <= WordIndex.MAX_LENGTH, 1 <= numGuesses <= MAX_GUESSES
+     * @post. getTurns() == 0
+     */
+    public static GameState start(int answer, int length, int numGuesses) {
+        if (length < 1 || length > WordIndex.MAX_LENGTH) throw new IllegalArgumentException("Word length " + length);
+        if (numGuesses < 1 || numGuesses > MAX_GUESSES) throw new IllegalArgumentException("Guesses " + numGuesses);
+        return new GameState(answer, length, numGuesses, NO_GUESSES, NO_PATTERNS, NO_KEYS);
+    }
+
+    /**
+     * Scores guess against the answer
+     * @pre. guess is a packed word of getLength() letters
+     * @post. Returns a new state one turn on; throws IllegalStateException if this game is already over
+     */
+    public GameState apply(int guess) {
+        if (isOver()) throw new IllegalStateException("Game is over");
+        int pattern = this.length == WordIndex.WORD_LENGTH ? Scorer.score(guess, this.answer)
+                : Scorer.score(guess, this.answer, this.length);
+        byte[] keys = this.keys;
+        for (int i = 0; i < this.length; i++) { // A letter keeps its best state across every guess
+            int l = WordIndex.letterAt(guess, i);
+            int state = Scorer.state(pattern, i);
+            if (state > keys[l]) {
+                if (keys == this.keys) keys = keys.clone(); // Copied only when a key changes
+                keys[l] = (byte) state;
+            }
+        }
+        int turns = this.guesses.length;
+        int[] guesses = Arrays.copyOf(this.guesses, turns + 1);
+        guesses[turns] = guess;
+        short[] patterns = Arrays.copyOf(this.patterns, turns + 1);
+        patterns[turns] = (short) pattern;
+        return new GameState(this.answer, this.length, this.numGuesses, guesses, patterns, keys);
+    }
+
+    /**
+     * Replays guesses from the start of a game
+     * @pre. Every guess is a packed word of length letters and there are at most numGuesses of them
+     * @post. getTurns() == guesses.length
+     */
+    public static GameState replay(int answer, int length, int numGuesses, int... guesses) {
+        GameState state = start(answer, length, numGuesses);
+        for (int guess : guesses) state = state.apply(guess);
+        return state;
+    }
+
+    public boolean isWon() {
+        int turns = this.patterns.length;
+        return turns > 0 && this.patterns[turns - 1] == Scorer.allCorrect(this.length);
+    }
+
+    public boolean isOver() {
+        return isWon() || this.guesses.length >= this.numGuesses;
+    }
+
+    /**
+     * Model letter state of a letter
+     * @pre. 0 <= letter < 26
+     * @post. Returns Model.UNASSIGNED, WRONG, PARTIAL or CORRECT
+     */
+    public int getKeyState(int letter) {
+        return this.keys[letter];
+    }
+
+    // Getters
+    public int getAnswer() { return answer; }
+    public int getLength() { return length; }
+    public int getNumGuesses() { return numGuesses; }
+    public int getTurns() { return guesses.length; }
+    public int getGuess(int turn) { return guesses[turn]; }
+    public int getPattern(int turn) { return patterns[turn]; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GameState)) return false;
+        GameState other = (GameState) o;
+        return this.answer == other.answer && this.length == other.length && this.numGuesses == other.numGuesses
+                && Arrays.equals(this.guesses, other.guesses); // Patterns and keys follow from the guesses
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * this.answer + this.length * 128 + this.numGuesses) + Arrays.hashCode(this.guesses);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(WordIndex.unpack(this.answer, this.length)).append(':');
+        for (int t = 0; t < this.guesses.length; t++)
+            sb.append(' ').append(WordIndex.unpack(this.guesses[t], this.length)).append('=')
+                    .append(Scorer.indicators(this.patterns[t], this.length));
+        return sb.toString();
+    }
+}
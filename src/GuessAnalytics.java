@@ -0,0 +1,190 @@
+import java.util.List;
+
+/**
+ * Live statistics over every game played: how often each word is guessed, the most popular openers, how often each
+ * answer is solved and how many distinct players met each puzzle, all in fixed memory. Games without a player id
+ * (player 0) count towards everything but the distinct players.
+ * Updates go to one of a fixed set of accumulators chosen by thread, each behind its own lock, so threads rarely
+ * share one and memory does not grow with the number of threads. Queries merge the parts of every accumulator
+ * they need, or sum the count-min estimates, which bounds the true count as tightly as a merged sketch.
+ * Words are keyed by their packed letters with the word length in the top bits, see key().
+ */
+public class GuessAnalytics {
+    // Constants
+    private static final int DEPTH = 4; // Count-min rows, a 1 in 16 chance of exceeding the error bound
+    private static final int WIDTH = 1 << 12; // Count-min counters per row, overcounts by at most N / 2048
+    private static final int OPENERS = 64; // Heavy hitter counters
+    private static final int PRECISION = 12; // Distinct players overall, about 1.6% error
+    private static final int PUZZLE_PRECISION = 7; // Distinct players per puzzle, about 9% error
+    private static final int PUZZLES = 2048; // Puzzles share HyperLogLogs when their answers hash together
+    private static final int LENGTH_SHIFT = 58;
+    // Attributes
+    private final Accumulator[] stripes;
+
+    public GuessAnalytics() {
+        this(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) * 2);
+    }
+
+    /**
+     * @pre. stripes is a power of two
+     * @post. None
+     */
+    public GuessAnalytics(int stripes) {
+        if (Integer.bitCount(stripes) != 1) throw new IllegalArgumentException("Stripes must be a power of two");
+        this.stripes = new Accumulator[stripes];
+        for (int s = 0; s < stripes; s++) this.stripes[s] = new Accumulator();
+    }
+
+    /**
+     * Key of a packed word in the sketches
+     * @pre. 1 <= length <= LongWordIndex.MAX_LENGTH
+     * @post. wordOf(key(packed, length)) is the word
+     */
+    public static long key(long packed, int length) {
+        return packed | (long) length << LENGTH_SHIFT;
+    }
+
+    public static String wordOf(long key) {
+        return WordIndex.unpack(key & ((1L << LENGTH_SHIFT) - 1), (int) (key >>> LENGTH_SHIFT));
+    }
+
+    private static long key(String word) {
+        long packed = word.length() <= WordIndex.MAX_LENGTH ? WordIndex.pack(word, word.length()) : LongWordIndex.pack(word, word.length());
+        return packed < 0 ? -1 : key(packed, word.length());
+    }
+
+    private Accumulator stripe() {
+        return this.stripes[(int) CountMinSketch.mix(Thread.currentThread().getId()) & (this.stripes.length - 1)];
+    }
+
+    /**
+     * Records one accepted guess
+     * @pre. guess is a packed word of length letters
+     * @post. None
+     */
+    public void guessed(long guess, int length, int turn) {
+        long key = key(guess, length);
+        Accumulator a = stripe();
+        synchronized (a) {
+            a.guesses.add(key, 1);
+            if (turn == 0) a.openers.add(key, 1);
+        }
+    }
+
+    /**
+     * Records the end of one game
+     * @pre. answer is a word of the lexicon the game was played with
+     * @post. A player of 0 is not counted as a distinct player
+     */
+    public void ended(long player, String answer, boolean won) {
+        long key = key(answer);
+        if (key < 0) return;
+        long hash = CountMinSketch.mix(key);
+        Accumulator a = stripe();
+        synchronized (a) {
+            if (won) a.solved.add(key, 1);
+            if (player != 0) {
+                a.players.add(player);
+                a.puzzlePlayers[(int) hash & (PUZZLES - 1)].add(player);
+            }
+        }
+    }
+
+    /**
+     * Listener feeding the guesses and results of one Model or MultiBoardModel played by player, 0 if anonymous
+     * @pre. wordLength is the length of the model's words
+     * @post. None
+     */
+    public GameListener listener(long player, int wordLength) {
+        return event -> {
+            if (event instanceof GameEvent.GuessScored)
+                guessed(((GameEvent.GuessScored) event).getDelta().getGuess(), wordLength, event.getTurn());
+            else if (event instanceof GameEvent.BoardsScored)
+                guessed(((GameEvent.BoardsScored) event).getGuess(), wordLength, event.getTurn());
+            else if (event instanceof GameEvent.GameWon) ended(player, ((GameEvent.GameWon) event).getAnswer(), true);
+            else if (event instanceof GameEvent.GameLost) ended(player, ((GameEvent.GameLost) event).getAnswer(), false);
+        };
+    }
+
+    /**
+     * The most popular first guesses, most popular first; counts may be high by their error
+     * @pre. k >= 0
+     * @post. Returned list has at most min(k, 64) elements
+     */
+    public List<HeavyHitters.Counter> topOpeners(int k) {
+        HeavyHitters openers = new HeavyHitters(OPENERS);
+        for (Accumulator a : this.stripes) {
+            synchronized (a) {
+                openers.merge(a.openers);
+            }
+        }
+        return openers.top(k);
+    }
+
+    public int guessCount(String word) { // Never lower than the true count
+        long key = key(word);
+        int count = 0;
+        if (key >= 0) for (Accumulator a : this.stripes) { // Summing each stripe's estimate is at least as tight as merging
+            synchronized (a) {
+                count += a.guesses.estimate(key);
+            }
+        }
+        return count;
+    }
+
+    public int solvedCount(String answer) { // Never lower than the true count
+        long key = key(answer);
+        int count = 0;
+        if (key >= 0) for (Accumulator a : this.stripes) {
+            synchronized (a) {
+                count += a.solved.estimate(key);
+            }
+        }
+        return count;
+    }
+
+    public long distinctPlayers() {
+        HyperLogLog players = new HyperLogLog(PRECISION);
+        for (Accumulator a : this.stripes) {
+            synchronized (a) {
+                players.merge(a.players);
+            }
+        }
+        return players.estimate();
+    }
+
+    public long distinctPlayers(String answer) { // Over every puzzle sharing answer's HyperLogLog
+        long key = key(answer);
+        if (key < 0) return 0;
+        HyperLogLog puzzle = new HyperLogLog(PUZZLE_PRECISION);
+        int slot = (int) CountMinSketch.mix(key) & (PUZZLES - 1);
+        for (Accumulator a : this.stripes) {
+            synchronized (a) {
+                puzzle.merge(a.puzzlePlayers[slot]);
+            }
+        }
+        return puzzle.estimate();
+    }
+
+    public long getGuessTotal() {
+        long total = 0;
+        for (Accumulator a : this.stripes) {
+            synchronized (a) {
+                total += a.guesses.getTotal();
+            }
+        }
+        return total;
+    }
+
+    private static final class Accumulator { // About 400KB, guarded by its own monitor
+        final CountMinSketch guesses = new CountMinSketch(DEPTH, WIDTH);
+        final HeavyHitters openers = new HeavyHitters(OPENERS);
+        final CountMinSketch solved = new CountMinSketch(DEPTH, WIDTH);
+        final HyperLogLog players = new HyperLogLog(PRECISION);
+        final HyperLogLog[] puzzlePlayers = new HyperLogLog[PUZZLES];
+
+        Accumulator() {
+            for (int p = 0; p < PUZZLES; p++) this.puzzlePlayers[p] = new HyperLogLog(PUZZLE_PRECISION);
+        }
+    }
+}
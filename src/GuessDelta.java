@@ -0,0 +1,44 @@
+/**
+ * What one submitted guess changed: the row it was scored in, its pattern, and the keyboard letters whose
+ * state changed. Carried by the GameEvent.GuessScored that Model publishes to its GameListeners, so views can
+ * update only the affected tiles and keys.
+ */
+public class GuessDelta {
+    private final int turn; // Row of the scored guess
+    private final long guess; // Packed guess
+    private final int pattern;
+    private final int changedKeys; // Bit l set when the state of letter l changed
+    private final byte[] keyStates; // State of every letter after the guess
+    private final int remaining; // Answers still consistent with the feedback
+    private final boolean won;
+    private final boolean over;
+
+    public GuessDelta(int turn, long guess, int pattern, int changedKeys, byte[] keyStates, int remaining,
+                      boolean won, boolean over) {
+        this.turn = turn;
+        this.guess = guess;
+        this.pattern = pattern;
+        this.changedKeys = changedKeys;
+        this.keyStates = keyStates;
+        this.remaining = remaining;
+        this.won = won;
+        this.over = over;
+    }
+
+    public boolean isKeyChanged(int letter) {
+        return (this.changedKeys & (1 << letter)) != 0;
+    }
+
+    public int getKeyState(int letter) {
+        return this.keyStates[letter];
+    }
+
+    // Getters
+    public int getTurn() { return turn; }
+    public long getGuess() { return guess; }
+    public int getPattern() { return pattern; }
+    public int getChangedKeys() { return changedKeys; }
+    public int getRemaining() { return remaining; }
+    public boolean isWon() { return won; }
+    public boolean isOver() { return over; }
+}
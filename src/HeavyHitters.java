@@ -0,0 +1,123 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The most frequent long keys of a stream, in a fixed number of counters (the SpaceSaving algorithm).
+ * A key without a counter takes over the smallest one and inherits its count as possible overcount, so every key
+ * seen more than N / capacity times is kept and no count is ever too low. Not thread-safe, merge to combine.
+ */
+public final class HeavyHitters {
+    // Attributes
+    private final long[] keys;
+    private final int[] counts;
+    private final int[] errors; // Count inherited from the key a counter last belonged to
+    private int size;
+
+    /**
+     * @pre. capacity >= 1
+     * @post. top(k) is empty
+     */
+    public HeavyHitters(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity " + capacity);
+        this.keys = new long[capacity];
+        this.counts = new int[capacity];
+        this.errors = new int[capacity];
+    }
+
+    public void add(long key, int count) {
+        int min = 0;
+        for (int i = 0; i < this.size; i++) {
+            if (this.keys[i] == key) {
+                this.counts[i] += count;
+                return;
+            }
+            if (this.counts[i] < this.counts[min]) min = i;
+        }
+        if (this.size < this.keys.length) {
+            this.keys[this.size] = key;
+            this.counts[this.size] = count;
+            this.errors[this.size++] = 0;
+            return;
+        }
+        this.keys[min] = key;
+        this.errors[min] = this.counts[min];
+        this.counts[min] += count;
+    }
+
+    /**
+     * Adds the counters of other, keeping the largest capacity of them
+     * @pre. None
+     * @post. No key's count is lower than its true count over both streams
+     */
+    public void merge(HeavyHitters other) {
+        int floor = this.size < this.keys.length ? 0 : this.counts[minIndex()]; // Most any dropped key can have had
+        int otherFloor = other.size < other.keys.length ? 0 : other.counts[other.minIndex()];
+        List<Counter> all = new ArrayList<>(this.size + other.size);
+        for (int i = 0; i < this.size; i++) {
+            int j = other.indexOf(this.keys[i]);
+            all.add(j >= 0 ? new Counter(this.keys[i], this.counts[i] + other.counts[j], this.errors[i] + other.errors[j])
+                    : new Counter(this.keys[i], this.counts[i] + otherFloor, this.errors[i] + otherFloor));
+        }
+        for (int j = 0; j < other.size; j++)
+            if (indexOf(other.keys[j]) < 0)
+                all.add(new Counter(other.keys[j], other.counts[j] + floor, other.errors[j] + floor));
+        all.sort((a, b) -> Integer.compare(b.count, a.count));
+        this.size = Math.min(all.size(), this.keys.length);
+        for (int i = 0; i < this.size; i++) {
+            Counter c = all.get(i);
+            this.keys[i] = c.key;
+            this.counts[i] = c.count;
+            this.errors[i] = c.error;
+        }
+    }
+
+    private int indexOf(long key) {
+        for (int i = 0; i < this.size; i++) if (this.keys[i] == key) return i;
+        return -1;
+    }
+
+    private int minIndex() {
+        int min = 0;
+        for (int i = 1; i < this.size; i++) if (this.counts[i] < this.counts[min]) min = i;
+        return min;
+    }
+
+    /**
+     * The k keys with the highest counts, highest first
+     * @pre. k >= 0
+     * @post. Returned list has at most min(k, capacity) elements
+     */
+    public List<Counter> top(int k) {
+        Counter[] all = new Counter[this.size];
+        for (int i = 0; i < this.size; i++) all[i] = new Counter(this.keys[i], this.counts[i], this.errors[i]);
+        Arrays.sort(all, (a, b) -> a.count != b.count ? Integer.compare(b.count, a.count) : Long.compare(a.key, b.key));
+        return Arrays.asList(Arrays.copyOf(all, Math.min(k, all.length)));
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    public int getCapacity() { return keys.length; }
+
+    /**
+     * A key with its count, which overcounts by at most error
+     */
+    public static final class Counter {
+        private final long key;
+        private final int count;
+        private final int error;
+
+        Counter(long key, int count, int error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        // Getters
+        public long getKey() { return key; }
+        public int getCount() { return count; }
+        public int getError() { return error; }
+    }
+}
@@ -0,0 +1,62 @@
+import java.util.Arrays;
+
+/**
+ * Approximate number of distinct long keys in 2^precision bytes.
+ * Each key is hashed; the first precision bits choose a register, which keeps the longest run of leading zeros
+ * seen in the rest. The standard error is about 1.04 / sqrt(2^precision). Not thread-safe, merge to combine.
+ */
+public final class HyperLogLog {
+    // Attributes
+    private final int precision;
+    private final byte[] registers;
+
+    /**
+     * @pre. 4 <= precision <= 18
+     * @post. estimate() == 0
+     */
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) throw new IllegalArgumentException("Precision " + precision);
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public void add(long key) {
+        long h = CountMinSketch.mix(key);
+        int register = (int) (h >>> (64 - this.precision));
+        int rank = Long.numberOfLeadingZeros((h << this.precision) | (1L << (this.precision - 1))) + 1;
+        if (rank > this.registers[register]) this.registers[register] = (byte) rank;
+    }
+
+    /**
+     * @pre. None
+     * @post. Returns the estimated number of distinct keys added
+     */
+    public long estimate() {
+        int m = this.registers.length, zeros = 0;
+        double sum = 0;
+        for (byte r : this.registers) {
+            sum += 1.0 / (1L << r);
+            if (r == 0) zeros++;
+        }
+        double alpha = m == 16 ? 0.673 : m == 32 ? 0.697 : m == 64 ? 0.709 : 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) estimate = m * Math.log((double) m / zeros); // Linear counting for small sets
+        return Math.round(estimate);
+    }
+
+    /**
+     * @pre. other has the same precision
+     * @post. estimate() covers the keys added to either
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != this.precision) throw new IllegalArgumentException("Precisions differ");
+        for (int i = 0; i < this.registers.length; i++)
+            if (other.registers[i] > this.registers[i]) this.registers[i] = other.registers[i];
+    }
+
+    public void clear() {
+        Arrays.fill(this.registers, (byte) 0);
+    }
+
+    public int getPrecision() { return precision; }
+}
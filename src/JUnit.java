@@ -1,8 +1,10 @@
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -54,5 +56,688 @@ public class JUnit {
         assertFalse(model.getGameFlag());
         assertFalse(model.getWinFlag());
         assertTrue(invariant(model));
+        model.submitWord("aaaaa");
+        assertThrows(IllegalStateException.class, model::submitGuess); // Not an ArrayIndexOutOfBoundsException
+        assertEquals(Model.NUMGUESSES, model.getTurnCount());
+        model = new Model(2, 2, 2, "cigar");
+        for (int i = 0; i < Model.NUMGUESSES; i++) {
+            model.submitWord("crane");
+            model.submitGuess();
+        }
+        model.submitWord("crane");
+        assertThrows(IllegalStateException.class, model::submitGuess);
+    }
+
+    @Test
+    @DisplayName("Word Index Packs Words and Finds Guesses and Answers")
+    void test4() throws IOException {
+        model = new Model(1, 0, 1);
+        WordIndex index = model.getIndex();
+        assertEquals("cigar", WordIndex.unpack(WordIndex.pack("cigar")));
+        assertEquals(WordIndex.INVALID, WordIndex.pack("Cigar"));
+        assertEquals(WordIndex.INVALID, WordIndex.pack("cigars"));
+        assertTrue(index.isAnswer(index.indexOf("cigar")));
+        assertFalse(index.isAnswer(index.indexOf("aahed")));
+        assertTrue(model.isValidWord("aahed"));
+        assertFalse(model.isValidWord("aaaaa"));
+        assertEquals(index.size(), model.getWords().size());
+    }
+
+    @Test
+    @DisplayName("Scorer Marks Repeated Letters Only As Often As They Appear")
+    void test5() throws IOException {
+        assertEquals("xx~x~", Scorer.indicators(Scorer.score(WordIndex.pack("speed"), WordIndex.pack("abide"))));
+        assertEquals(Scorer.ALL_CORRECT, Scorer.score(WordIndex.pack("abide"), WordIndex.pack("abide")));
+        model = new Model(0, 0, 0, "tires");
+        model.submitWord("tried");
+        assertEquals("o~~ox", model.getIndicators());
+        model.submitGuess();
+        assertEquals(Model.CORRECT, model.getLetter("t").getButtonState());
+        assertEquals(Model.WRONG, model.getLetter("d").getButtonState());
+        model.submitWord("sissy");
+        model.submitGuess();
+        assertEquals("~oxxx", Scorer.indicators(model.getPattern(1)));
+    }
+
+    @Test
+    @DisplayName("Pattern Matrix Matches Scorer and Is Reused From Cache")
+    void test6(@TempDir Path dir) throws IOException {
+        model = new Model(1, 0, 1);
+        WordIndex index = model.getIndex();
+        PatternMatrix matrix = PatternMatrix.load(index, dir);
+        for (int g = 0; g < index.size(); g += 97)
+            for (int a = 0; a < index.answerCount(); a += 13)
+                assertEquals(Scorer.score(index.word(g), index.answer(a)), matrix.get(g, a));
+        PatternMatrix cached = PatternMatrix.load(index, dir);
+        assertEquals(matrix.get(index.size() - 1, index.answerCount() - 1),
+                cached.get(index.size() - 1, index.answerCount() - 1));
+    }
+
+    @Test
+    @DisplayName("Simulator Accounts For Every Game Played")
+    void test7() throws IOException {
+        model = new Model(1, 0, 1);
+        WordIndex index = model.getIndex();
+        Simulator.Result result = new Simulator(index).run(new CandidateStrategy(index, "raise"),
+                Simulator.sample(index.answerCount(), 200, 42));
+        assertEquals(200, result.getGames());
+        int won = 0;
+        for (int count : result.getHistogram()) won += count;
+        assertEquals(200, won + result.getFailures());
+        assertTrue(result.getAverageGuesses() > 1 && result.getAverageGuesses() <= Model.NUMGUESSES);
+    }
+
+    @Test
+    @DisplayName("Solver Keeps The Answer Among Candidates And Hints A Valid Word")
+    void test8() throws IOException {
+        model = new Model(0, 0, 1, "cigar");
+        Solver solver = new Solver(model.getIndex(), null);
+        model.submitWord("crane");
+        model.submitGuess();
+        int[] candidates = solver.candidates(new int[]{model.getPackedGuess(0)}, new int[]{model.getPattern(0)}, 1);
+        int answer = model.getIndex().indexOf("cigar");
+        assertTrue(java.util.Arrays.stream(candidates).anyMatch(a -> a == answer));
+        String hint = solver.hint(model);
+        assertNotNull(hint);
+        assertTrue(model.isValidWord(hint));
+        Solver unhurried = new Solver(model.getIndex(), null, Solver.Metric.ENTROPY, 10_000_000_000L);
+        assertEquals(unhurried.hint(model), unhurried.hint(model.getState())); // The snapshot the GUI searches off the EDT
+    }
+
+    @Test
+    @DisplayName("Binary Dictionary Round Trips And Is Shared Between Models")
+    void test9(@TempDir Path dir) throws IOException {
+        model = new Model(1, 0, 1);
+        assertSame(model.getIndex(), new Model(1, 0, 1).getIndex());
+        Path file = dir.resolve("dictionary.bin");
+        model.getIndex().write(file, Path.of(Model.ANSWER_FILE), Path.of(Model.WORDS_FILE));
+        java.nio.ByteBuffer bytes = java.nio.ByteBuffer.wrap(java.nio.file.Files.readAllBytes(file));
+        assertTrue(WordIndex.isCurrent(bytes, Model.ANSWER_FILE, Model.WORDS_FILE));
+        assertTrue(WordIndex.isCurrent(java.nio.ByteBuffer.wrap(java.nio.file.Files.readAllBytes(Path.of(WordIndex.DICTIONARY_FILE))),
+                Model.ANSWER_FILE, Model.WORDS_FILE)); // The checked-in dictionary was compiled from the checked-in lists
+        WordIndex copy = WordIndex.read(bytes);
+        assertEquals(model.getIndex().size(), copy.size());
+        assertEquals(model.getIndex().answerCount(), copy.answerCount());
+        for (int i = 0; i < copy.size(); i++) assertEquals(model.getIndex().word(i), copy.word(i));
+
+        Path answers = dir.resolve("answers.txt"), words = dir.resolve("words.txt");
+        java.nio.file.Files.write(answers, java.util.Arrays.asList("cigar", "rebut"));
+        java.nio.file.Files.write(words, java.util.Arrays.asList("aahed"));
+        WordIndex.load(answers.toString(), words.toString()).write(file, answers, words);
+        bytes = java.nio.ByteBuffer.wrap(java.nio.file.Files.readAllBytes(file));
+        assertTrue(WordIndex.isCurrent(bytes, answers.toString(), words.toString()));
+        java.nio.file.Files.write(words, java.util.Arrays.asList("aahed", "aalii")); // Edited without recompiling
+        assertFalse(WordIndex.isCurrent(bytes, answers.toString(), words.toString()));
+    }
+
+    @Test
+    @DisplayName("Server Hosts Independent Games")
+    void test10() throws Exception {
+        WordleServer server = new WordleServer(new java.net.InetSocketAddress("localhost", 0), 1);
+        server.start();
+        try {
+            java.net.http.HttpClient client = java.net.http.HttpClient.newHttpClient();
+            String base = "http://localhost:" + server.getPort() + "/games";
+            String first = post(client, base + "?answer=tires");
+            String second = post(client, base + "?answer=cigar");
+            String id = first.substring(first.indexOf("\"id\":\"") + 6, first.indexOf("\",\"turns\""));
+            String otherId = second.substring(second.indexOf("\"id\":\"") + 6, second.indexOf("\",\"turns\""));
+            assertTrue(post(client, base + "/" + id + "/guesses?word=tried").contains("\"indicators\":\"o~~ox\""));
+            assertTrue(post(client, base + "/" + otherId + "/guesses?word=cigar").contains("\"won\":true"));
+            assertTrue(post(client, base + "/" + id + "/guesses?word=zzzzz").contains("not in the guess list"));
+            assertEquals(2, server.getSessionCount());
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static String post(java.net.http.HttpClient client, String uri) throws Exception {
+        java.net.http.HttpRequest request = java.net.http.HttpRequest.newBuilder(java.net.URI.create(uri))
+                .POST(java.net.http.HttpRequest.BodyPublishers.noBody()).build();
+        return client.send(request, java.net.http.HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    @Test
+    @DisplayName("Journal Replays Unfinished Games Across Snapshots")
+    void test11(@TempDir Path dir) throws IOException {
+        int answer = WordIndex.pack("tires"), guess = WordIndex.pack("tried");
+        try (GameJournal journal = GameJournal.open(dir, 3)) {
+            journal.gameStarted(1, answer);
+            journal.gameStarted(2, answer);
+            journal.guessSubmitted(1, guess, Scorer.score(guess, answer));
+            journal.sync();
+            journal.gameEnded(2, false, 0);
+            journal.gameStarted(3, answer, 0xfeedfacecafebeefL);
+        }
+        assertEquals(0xfeedfacecafebeefL, GameJournal.replay(dir).get(3L).getPlayer());
+        GameJournal reopened = GameJournal.open(dir, 3);
+        try (GameJournal journal = reopened) {
+            assertEquals(2, journal.getRestoredGames().size());
+            journal.gameEnded(3, true, 1);
+            journal.guessSubmitted(1, guess, Scorer.score(guess, answer));
+        }
+        assertThrows(IllegalStateException.class, () -> reopened.gameEnded(1, false, 0)); // Never silently dropped
+        GameRecord game = GameJournal.replay(dir).get(1L);
+        assertEquals(2, game.getTurns());
+        model = game.toModel(1);
+        assertEquals(2, model.getTurnCount());
+        assertEquals("o~~ox", Scorer.indicators(model.getPattern(1)));
+    }
+
+    @Test
+    @DisplayName("Remaining Candidates Narrow With Each Guess")
+    void test12() throws IOException {
+        model = new Model(0, 0, 0, "cigar");
+        Solver solver = new Solver(model.getIndex(), null);
+        assertEquals(model.getIndex().answerCount(), model.remainingCandidateCount());
+        model.submitWord("crane");
+        model.submitGuess();
+        model.submitWord("qxzzj"); // Not in the dictionary, so narrowed by scanning the survivors
+        model.submitGuess();
+        int[] expected = solver.candidates(new int[]{model.getPackedGuess(0), model.getPackedGuess(1)},
+                new int[]{model.getPattern(0), model.getPattern(1)}, 2);
+        assertArrayEquals(expected, model.getCandidates().toArray());
+        assertTrue(model.getCandidates().contains(model.getIndex().indexOf("cigar")));
+        model.initialise();
+        assertEquals(model.getIndex().answerCount(), model.remainingCandidateCount());
+    }
+
+    @Test
+    @DisplayName("Guess Delta Reports Only Changed Keys")
+    void test13() throws IOException {
+        model = new Model(0, 0, 0, "tires");
+        java.util.List<GuessDelta> deltas = new java.util.ArrayList<>();
+        model.addListener(e -> {
+            if (e instanceof GameEvent.GuessScored) deltas.add(((GameEvent.GuessScored) e).getDelta());
+        });
+        model.submitWord("tried");
+        model.submitGuess();
+        model.submitWord("tried");
+        model.submitGuess();
+        assertEquals(2, deltas.size());
+        assertEquals(5, Integer.bitCount(deltas.get(0).getChangedKeys()));
+        assertEquals(Model.WRONG, deltas.get(0).getKeyState('d' - 'a'));
+        assertEquals(0, deltas.get(1).getChangedKeys());
+        assertEquals(1, deltas.get(1).getTurn());
+    }
+
+    @Test
+    @DisplayName("Game Events Are Typed And Delivered In Order Off The Game Thread")
+    void test14() throws IOException {
+        model = new Model(0, 0, 0, "cigar");
+        java.util.List<GameEvent> events = java.util.Collections.synchronizedList(new java.util.ArrayList<>());
+        java.util.List<Thread> threads = java.util.Collections.synchronizedList(new java.util.ArrayList<>());
+        AsyncGameListener async = new AsyncGameListener(e -> {
+            events.add(e);
+            threads.add(Thread.currentThread());
+        }, 4);
+        model.addListener(async);
+        model.submitLetter(model.getLetter("x"));
+        model.removeLastLetter();
+        for (int t = 0; t < Model.NUMGUESSES; t++) {
+            model.submitWord("crane");
+            model.submitGuess();
+        }
+        model.initialise();
+        model.removeListener(async);
+        model.submitWord("cigar"); // Not delivered once removed
+        async.close();
+        assertEquals(2 + 5 * Model.NUMGUESSES + Model.NUMGUESSES + 1 + 1, events.size());
+        GameEvent.LetterTyped typed = (GameEvent.LetterTyped) events.get(0);
+        assertEquals('x' - 'a', typed.getLetter());
+        assertTrue(((GameEvent.LetterTyped) events.get(1)).isRemoved());
+        GameEvent.GameLost lost = (GameEvent.GameLost) events.get(events.size() - 2);
+        assertEquals(Model.NUMGUESSES - 1, lost.getTurn());
+        assertEquals("cigar", lost.getAnswer());
+        assertTrue(events.get(events.size() - 1) instanceof GameEvent.GameReset);
+        assertFalse(threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    @DisplayName("Games Of Other Word Lengths Use Length-Partitioned Dictionaries")
+    void test15(@TempDir Path dir) throws IOException {
+        Path answers = dir.resolve("answers.txt");
+        Path words = dir.resolve("words.txt");
+        java.nio.file.Files.write(answers, java.util.Arrays.asList("Letter", "garden", "cabbage", "balloon", "word"));
+        java.nio.file.Files.write(words, java.util.Arrays.asList("lettuce", "cabbage", "abcdefghijk", "wordy", "toolong-word"));
+        Dictionaries dictionaries = Dictionaries.load(answers, words);
+        Lexicon seven = dictionaries.forLength(7);
+        assertTrue(seven instanceof LongWordIndex);
+        assertEquals(2, seven.answerCount());
+        assertEquals(3, seven.size()); // cabbage is only kept once
+        assertEquals(0, seven.indexOf("cabbage"));
+        assertTrue(dictionaries.forLength(6) instanceof WordIndex);
+        assertEquals(1, dictionaries.forLength(11).size());
+        assertFalse(dictionaries.hasLength(8));
+
+        model = new Model(2, 2, 1, "balloon", seven, 8);
+        assertEquals("Word is not seven characters!", model.getValidationError("crane"));
+        assertEquals("Word is not in the guess list", model.getValidationError("bazooka"));
+        model.submitWord("cabbage");
+        assertEquals("xo~xxxx", model.getIndicators());
+        model.submitGuess();
+        assertEquals(1, model.remainingCandidateCount());
+        assertEquals("balloon", model.getFirstCandidate());
+        for (int t = 1; t < 8; t++) {
+            model.submitWord("lettuce");
+            model.submitGuess();
+        }
+        assertFalse(model.getGameFlag());
+        assertEquals(8, model.getTurnCount());
+
+        java.util.Random rand = new java.util.Random(13);
+        for (int i = 0; i < 10_000; i++) { // The generic kernel agrees with the five-letter one
+            int g = rand.nextInt(1 << 25), a = rand.nextInt(1 << 25);
+            g = WordIndex.pack(WordIndex.unpack(g).replaceAll("[^a-z]", "z"));
+            a = WordIndex.pack(WordIndex.unpack(a).replaceAll("[^a-z]", "z"));
+            assertEquals(Scorer.score(g, a), Scorer.score((long) g, a, 5));
+        }
+    }
+
+    @Test
+    @DisplayName("Operation Latencies Are Published Through JMX")
+    void test16(@TempDir Path dir) throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) histogram.record(v * 10);
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_000, histogram.percentile(0.5), 500_000 / 16.0);
+        assertEquals(990_000, histogram.percentile(0.99), 990_000 / 16.0);
+        assertEquals(999_000, histogram.percentile(0.999), 999_000 / 16.0);
+        for (long v = 0; v < 1L << 40; v = v * 3 + 1) // Buckets cover their own lower bound
+            assertTrue(LatencyHistogram.lowerBound(LatencyHistogram.bucket(v)) <= v);
+
+        model = new Model(0, 0, 0, "cigar");
+        long before = Metrics.operation("Model.submitGuess").getCount();
+        model.submitWord("crane");
+        model.submitGuess();
+        javax.management.MBeanServer server = java.lang.management.ManagementFactory.getPlatformMBeanServer();
+        javax.management.ObjectName name = new javax.management.ObjectName("wordle:type=Operation,name=Model.submitGuess");
+        assertEquals(before + 1, (long) (Long) server.getAttribute(name, "Count"));
+        Path file = dir.resolve("metrics.txt");
+        server.invoke(new javax.management.ObjectName("wordle:type=Metrics"), "dump",
+                new Object[]{file.toString()}, new String[]{String.class.getName()});
+        assertTrue(new String(java.nio.file.Files.readAllBytes(file)).contains("Model.submitGuess"));
+
+        OperationStats lookups = Metrics.operation("Model.isValidWord");
+        lookups.reset();
+        for (int i = 0; i < 6400; i++) model.isValidWord("crane");
+        assertEquals(6400, lookups.getCount()); // Every call is counted
+        assertTrue(lookups.getLatency().getCount() < 640); // But only about one in 64 is timed
+    }
+
+    @Test
+    @DisplayName("Dead Prefixes Are Flagged On Each Keystroke")
+    void test17() throws IOException {
+        WordIndex index = WordIndex.shared();
+        Dawg dawg = Dawg.of(index);
+        for (int i = 0; i < index.size(); i++) assertTrue(dawg.contains(WordIndex.unpack(index.word(i))));
+        assertFalse(dawg.contains("qxzzj"));
+        assertFalse(dawg.contains("cran"));
+        assertTrue(dawg.isPrefix("cran"));
+        assertEquals(1, dawg.livePrefixLength("qxzzj"));
+        assertTrue(dawg.stateCount() < index.size()); // Shared suffixes are merged
+
+        model = new Model(2, 2, 1, "cigar");
+        java.util.List<Boolean> live = new java.util.ArrayList<>();
+        model.addListener(e -> {
+            if (e instanceof GameEvent.LetterTyped) live.add(((GameEvent.LetterTyped) e).isLive());
+        });
+        Controller controller = new Controller(model);
+        controller.submitLetter("c");
+        controller.submitLetter("x");
+        assertFalse(controller.isPrefixLive());
+        controller.removeLetter();
+        assertTrue(controller.isPrefixLive());
+        assertEquals(java.util.Arrays.asList(true, false, true), live);
+        assertEquals(1, model.livePrefixLength("cxqqq"));
+        assertTrue(new Model(2, 2, 2, "cigar").livePrefixLength("cxqqq") == 5); // Loose mode accepts anything
+    }
+
+    @Test
+    @DisplayName("Large Word Lists Stream Into Off-Heap Lexicons")
+    void test18(@TempDir Path dir) throws IOException {
+        Path answers = dir.resolve("answers.txt");
+        Path words = dir.resolve("words.txt");
+        java.nio.file.Files.write(answers, "\uFEFFCafé\r\nnaïve \r\n\r\nÉCOLE\nbad-word\ncafe\n12345\nzürich".getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        StringBuilder big = new StringBuilder();
+        java.util.Random rand = new java.util.Random(7);
+        for (int i = 0; i < 200_000; i++) { // Several chunks, with multi-byte letters falling across chunk edges
+            int n = 4 + rand.nextInt(8);
+            for (int j = 0; j < n; j++) big.append(j == 1 && i % 3 == 0 ? 'é' : (char) ('a' + rand.nextInt(26)));
+            big.append('\n');
+        }
+        java.nio.file.Files.write(words, big.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
+
+        Dictionaries offHeap = Dictionaries.stream(answers, words);
+        Dictionaries onHeap = Dictionaries.load(answers, words);
+        Lexicon four = offHeap.forLength(4);
+        assertTrue(four instanceof OffHeapLexicon);
+        assertEquals(1, four.answerCount()); // "Café" and "cafe" are the same word
+        assertEquals(0, four.indexOf("cafe"));
+        assertEquals(0, offHeap.forLength(5).indexOf("naive"));
+        assertEquals(1, offHeap.forLength(5).indexOf("ecole"));
+        assertEquals(1, offHeap.forLength(6).answerCount());
+        for (int n = Dictionaries.MIN_LENGTH; n <= Dictionaries.MAX_LENGTH; n++) {
+            Lexicon a = offHeap.forLength(n), b = onHeap.forLength(n);
+            assertEquals(b.size(), a.size());
+            assertEquals(b.answerCount(), a.answerCount());
+            for (int i = 0; i < a.size(); i += 97) {
+                assertEquals(b.packed(i), a.packed(i));
+                assertEquals(i, a.indexOf(a.asList(0, a.size()).get(i)));
+            }
+        }
+        assertEquals(-1, offHeap.forLength(7).indexOf("qqqqqqq"));
+        Model streamed = new Model(2, 0, 1, "cafe", four, Model.NUMGUESSES); // Strict, but no automaton on the heap
+        streamed.submitWord("qqqq");
+        assertTrue(streamed.isCurrentPrefixLive());
+        assertFalse(streamed.isCurrentGuessValid());
+    }
+
+    @Test
+    @DisplayName("One Guess Is Scored Against Every Open Board")
+    void test19() throws IOException {
+        String[] answers = {"cigar", "crane", "rebut", "sissy"};
+        MultiBoardModel multi = new MultiBoardModel(WordIndex.shared(), 4, 9, 1, answers);
+        java.util.List<GameEvent> events = new java.util.ArrayList<>();
+        multi.addListener(events::add);
+        multi.submitGuess("crane");
+        for (int b = 0; b < 4; b++)
+            assertEquals(Scorer.score(WordIndex.pack("crane"), WordIndex.pack(answers[b])), multi.getPattern(b, 0));
+        assertTrue(multi.isSolved(1));
+        assertEquals(1, multi.getSolvedTurn(1));
+        assertEquals(Model.CORRECT, multi.getKeyState(0, 'c' - 'a'));
+        assertEquals(Model.WRONG, multi.getKeyState(3, 'c' - 'a'));
+        multi.submitGuess("cigar");
+        assertEquals(MultiBoardModel.SOLVED, multi.getPattern(1, 1));
+        multi.submitGuess("rebut");
+        multi.submitGuess("sissy");
+        assertTrue(multi.isWon());
+        assertTrue(events.get(events.size() - 1) instanceof GameEvent.GameWon);
+        GameEvent.BoardsScored last = (GameEvent.BoardsScored) events.get(events.size() - 2);
+        assertEquals(0b1111, last.getSolved());
+        assertEquals("Word is not in the guess list", multi.getValidationError("qxzzj"));
+
+        MultiBoardModel octo = new MultiBoardModel(WordIndex.shared(), 32, 37, 1, null);
+        assertEquals(32, new java.util.HashSet<>(java.util.Arrays.asList(octo.getAnswers())).size());
+        for (int t = 0; t < 37 && !octo.isOver(); t++) octo.submitGuess(octo.getAnswer(t % 32));
+        assertTrue(octo.isWon());
+        assertEquals(32, octo.getSolvedCount());
+
+        MultiBoardModel marathon = new MultiBoardModel(WordIndex.shared(), 3, 200, 2, new String[]{"cigar"});
+        assertEquals("cigar", marathon.getAnswer(0)); // The boards after the given answers are random
+        assertEquals(3, new java.util.HashSet<>(java.util.Arrays.asList(marathon.getAnswers())).size());
+        for (int t = 0; t < 150; t++) marathon.submitGuess("qxzzj");
+        marathon.submitGuess("cigar");
+        assertEquals(151, marathon.getSolvedTurn(0));
+        assertThrows(IllegalArgumentException.class, () -> GameOptions.parse(new String[]{"--boards", "2", "--answer", "cigar,rebut,sissy"}));
+    }
+
+    @Test
+    @DisplayName("Adversarial Mode Keeps The Largest Bucket Of Answers")
+    void test20() throws IOException {
+        model = new Model(3, 2, 1);
+        WordIndex index = model.getIndex();
+        int[] sizes = new int[Scorer.PATTERNS];
+        int guess = WordIndex.pack("crane");
+        for (int a = 0; a < index.answerCount(); a++) sizes[Scorer.score(guess, index.answer(a))]++;
+        int largest = 0;
+        for (int p = 0; p < Scorer.PATTERNS; p++) largest = Math.max(largest, sizes[p]);
+        model.submitWord("crane");
+        model.submitGuess();
+        assertEquals(largest, model.remainingCandidateCount());
+        assertEquals(largest, sizes[model.getPattern(0)]);
+        assertFalse(model.getWinFlag());
+
+        Partition partition = new Partition(index.answerCount(), Scorer.PATTERNS);
+        partition.split(model.getCandidates(), index, WordIndex.pack("sloth"));
+        int total = 0;
+        for (int p = 0; p < Scorer.PATTERNS; p++) {
+            total += partition.size(p);
+            for (int i = 0; i < partition.size(p); i++)
+                assertEquals(p, Scorer.score(WordIndex.pack("sloth"), index.answer(partition.member(p, i))));
+        }
+        assertEquals(model.remainingCandidateCount(), total);
+
+        for (int t = 1; t < Model.NUMGUESSES && model.getGameFlag(); t++) { // Guessing a survivor never wins early
+            String survivor = model.getFirstCandidate();
+            int before = model.remainingCandidateCount();
+            model.submitWord(survivor);
+            model.submitGuess();
+            assertEquals(before == 1, model.getWinFlag());
+        }
+    }
+
+    @Test
+    @DisplayName("Decision Tree Solves Every Answer It Was Built For And Survives A Round Trip")
+    void test21(@TempDir Path dir) throws IOException {
+        WordIndex index = WordIndex.shared();
+        int[] answers = Simulator.sample(index.answerCount(), 300, 21);
+        DecisionTree built = new DecisionTree.Builder(index, null).build(answers, java.util.concurrent.ForkJoinPool.commonPool());
+        Path file = dir.resolve("tree.bin");
+        built.write(file, index);
+        DecisionTree tree = DecisionTree.read(file, index);
+        assertEquals(built.size(), tree.size());
+
+        int[] guesses = new int[Model.NUMGUESSES];
+        int[] patterns = new int[Model.NUMGUESSES];
+        for (int a : answers) {
+            int depth = tree.depth(index, a);
+            assertTrue(depth >= 1 && depth <= Model.NUMGUESSES);
+            for (int turn = 0; ; turn++) { // Walking the tree a turn at a time reaches the answer at the same depth
+                int guess = tree.lookup(guesses, patterns, turn);
+                assertTrue(guess >= 0);
+                int pattern = Scorer.score(index.word(guess), index.answer(a));
+                if (pattern == Scorer.ALL_CORRECT) {
+                    assertEquals(depth, turn + 1);
+                    break;
+                }
+                guesses[turn] = guess;
+                patterns[turn] = pattern;
+            }
+        }
+        guesses[0] = tree.lookup(guesses, patterns, 0) + 1; // Leaving the plan is reported, not guessed at
+        assertEquals(-1, tree.lookup(guesses, patterns, 1));
+    }
+
+    @Test
+    @DisplayName("Column Scorer Matches Scorer On Every Answer")
+    void test22() throws IOException {
+        WordIndex index = WordIndex.shared();
+        int[] answers = new int[index.answerCount()];
+        for (int a = 0; a < answers.length; a++) answers[a] = index.answer(a);
+        int[] expected = new int[Scorer.PATTERNS];
+        int[] actual = new int[Scorer.PATTERNS];
+        for (int n : new int[]{0, 1, 13, answers.length}) { // Partly filled last block included
+            ColumnScorer columns = new ColumnScorer(answers, n);
+            for (int g = 0; g < index.size(); g += 7) {
+                ColumnScorer.histogram(index.word(g), answers, n, expected);
+                columns.histogram(index.word(g), actual);
+                assertArrayEquals(expected, actual);
+            }
+        }
+        ColumnScorer columns = new ColumnScorer(answers, answers.length);
+        int[] patterns = new int[answers.length];
+        for (String guess : new String[]{"speed", "eerie", "llama", "mummy", "xxxxx"}) { // Repeated letters
+            columns.scoreAll(WordIndex.pack(guess), patterns);
+            for (int a = 0; a < answers.length; a++) assertEquals(Scorer.score(WordIndex.pack(guess), answers[a]), patterns[a]);
+        }
+    }
+
+    @Test
+    @DisplayName("Game States Fork Without Changing Each Other And Match The Model")
+    void test23() throws IOException {
+        model = new Model(2, 2, 1, "crate");
+        GameState start = GameState.start(WordIndex.pack("crate"));
+        GameState left = start.apply(WordIndex.pack("trace"));
+        GameState right = start.apply(WordIndex.pack("plumb"));
+        assertEquals(0, start.getTurns());
+        assertEquals(Model.UNASSIGNED, start.getKeyState('t' - 'a'));
+        assertEquals(Model.PARTIAL, left.getKeyState('t' - 'a'));
+        assertEquals(Model.UNASSIGNED, right.getKeyState('t' - 'a'));
+        assertEquals(Model.WRONG, right.getKeyState('p' - 'a'));
+
+        for (String guess : new String[]{"trace", "cater", "crate"}) {
+            model.submitWord(guess);
+            model.submitGuess();
+        }
+        GameState state = model.getState();
+        assertEquals(GameState.replay(WordIndex.pack("crate"), 5, Model.NUMGUESSES,
+                WordIndex.pack("trace"), WordIndex.pack("cater"), WordIndex.pack("crate")), state);
+        assertTrue(state.isWon() && state.isOver());
+        for (int t = 0; t < model.getTurnCount(); t++) assertEquals(model.getPattern(t), state.getPattern(t));
+        for (Letter l : model.getCorrectLetters()) assertEquals(Model.CORRECT, state.getKeyState(l.getCode()));
+        assertThrows(IllegalStateException.class, () -> state.apply(WordIndex.pack("crate")));
+        assertEquals(1, left.getTurns());
+        assertEquals(1, right.getTurns());
+        assertThrows(IllegalArgumentException.class, () -> GameOptions.parse(new String[]{"--guesses", "200"}));
+    }
+
+    @Test
+    @DisplayName("Batch Mode Answers Every Record With One Line")
+    void test24() throws IOException {
+        BatchMode batch = new BatchMode(WordIndex.shared(), Model.NUMGUESSES, true, new java.util.Random(24));
+        java.io.StringWriter out = new java.io.StringWriter();
+        batch.run(new java.io.BufferedReader(new java.io.StringReader(
+                "crate\nnew crate\nTRACE\nzzzzz\ncrat\n\ncrate\ncrate\nnew sloth\npygmy\npygmy\npygmy\npygmy\npygmy\npygmy\nnew\n")), out);
+        String[] expected = {"error No game in progress", "ready", Scorer.indicators(Scorer.score(WordIndex.pack("trace"), WordIndex.pack("crate"))),
+                "error Word is not in the guess list", "error Word is not 5 letters", "ooooo won", "error No game in progress",
+                "ready", "xxxxx", "xxxxx", "xxxxx", "xxxxx", "xxxxx", "xxxxx lost sloth", "ready"};
+        assertArrayEquals(expected, out.toString().split("\n"));
+        assertEquals(3, batch.getGames());
+        assertEquals(8, batch.getGuesses());
+        assertThrows(IllegalArgumentException.class, () -> GameOptions.parse(new String[]{"--batch", "-", "--strict", "3"}));
+        assertEquals("-", GameOptions.parse(new String[]{"--batch", "-"}).getBatchSource());
+        java.io.StringWriter blank = new java.io.StringWriter();
+        batch.run(new java.io.BufferedReader(new java.io.StringReader(" \t \n")), blank);
+        assertEquals("", blank.toString());
+        assertThrows(IllegalArgumentException.class, () -> new BatchMode(WordIndex.shared(), 200, true, new java.util.Random()));
+    }
+
+    @Test
+    @DisplayName("Player Stats Survive Concurrent Updates And A Reopen")
+    void test25(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("players.bin");
+        try (PlayerStats stats = PlayerStats.open(file, 1000)) {
+            assertEquals(1024, stats.getCapacity());
+            Thread[] threads = new Thread[4];
+            for (int i = 0; i < threads.length; i++) {
+                threads[i] = new Thread(() -> { // Every thread plays the same 500 players, so slots are claimed in races
+                    for (long player = 1; player <= 500; player++) stats.recordGame(player, player % 5 != 0, (int) (player % 6) + 1);
+                });
+                threads[i].start();
+            }
+            for (Thread t : threads) t.join();
+            model = new Model(2, 2, 1, "crate");
+            model.addListener(stats.listener(777));
+            model.submitWord("crate");
+            model.submitGuess();
+        }
+        try (PlayerStats stats = PlayerStats.open(file, 1)) {
+            assertEquals(1024, stats.getCapacity());
+            assertEquals(501, stats.getPlayerCount());
+            PlayerStats.Stats seven = stats.get(7);
+            assertEquals(4, seven.getPlayed());
+            assertEquals(4, seven.getMaxStreak());
+            assertEquals(4, seven.getDistribution(2));
+            assertEquals(2.0, seven.getAverageGuesses());
+            PlayerStats.Stats ten = stats.get(10);
+            assertEquals(0, ten.getWon());
+            assertEquals(0.0, ten.getWinRate());
+            assertEquals(1, stats.get(777).getDistribution(1));
+            assertNull(stats.get(501));
+        }
+    }
+
+    @Test
+    @DisplayName("Leaderboard Ranks Players And Rolls Its Windows Over")
+    void test26() throws InterruptedException {
+        long[] now = {java.util.concurrent.TimeUnit.DAYS.toMillis(4) + 1000}; // Monday 5 January 1970
+        Leaderboard board = new Leaderboard(() -> now[0], Model.NUMGUESSES + 1);
+        board.recordGame(1, true, 3, 40_000);
+        board.recordGame(2, true, 3, 20_000);
+        board.recordGame(3, true, 4, 90_000);
+        board.recordGame(3, true, 2, 50_000);
+        board.recordGame(4, false, 6, 0);
+        java.util.List<Leaderboard.Standing> top = board.top(Leaderboard.Period.DAILY, Leaderboard.Metric.AVERAGE_GUESSES, 3);
+        assertEquals(3, top.size());
+        assertEquals(1, top.get(0).getRank()); // Players 1, 2 and 3 all average three guesses
+        assertEquals(1, top.get(2).getRank());
+        assertEquals(3.0, top.get(2).getValue());
+        assertEquals(4, board.rank(Leaderboard.Period.DAILY, Leaderboard.Metric.AVERAGE_GUESSES, 4));
+        assertEquals(1, board.rank(Leaderboard.Period.DAILY, Leaderboard.Metric.LONGEST_STREAK, 3));
+        assertEquals(-1, board.rank(Leaderboard.Period.DAILY, Leaderboard.Metric.LONGEST_STREAK, 4));
+        assertEquals(2, board.top(Leaderboard.Period.ALL_TIME, Leaderboard.Metric.FASTEST_SOLVE, 1).get(0).getPlayer());
+        assertEquals(20_000.0, board.top(Leaderboard.Period.ALL_TIME, Leaderboard.Metric.FASTEST_SOLVE, 1).get(0).getValue());
+
+        now[0] += java.util.concurrent.TimeUnit.DAYS.toMillis(1); // Tuesday: a new day, the same week
+        board.recordGame(5, true, 1, 5_000);
+        assertEquals(1, board.getPlayerCount(Leaderboard.Period.DAILY));
+        assertEquals(5, board.getPlayerCount(Leaderboard.Period.WEEKLY));
+        assertEquals(1, board.rank(Leaderboard.Period.WEEKLY, Leaderboard.Metric.AVERAGE_GUESSES, 5));
+        now[0] += java.util.concurrent.TimeUnit.DAYS.toMillis(6); // The next Monday
+        assertEquals(0, board.getPlayerCount(Leaderboard.Period.WEEKLY));
+        assertEquals(5, board.getPlayerCount(Leaderboard.Period.ALL_TIME));
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int first = 100 + t * 1000;
+            threads[t] = new Thread(() -> {
+                for (int g = 0; g < 5000; g++) board.recordGame(first + g % 1000, g % 3 != 0, 1 + g % 6, g);
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) t.join();
+        assertEquals(4000, board.getPlayerCount(Leaderboard.Period.DAILY));
+        int ranked = board.top(Leaderboard.Period.DAILY, Leaderboard.Metric.AVERAGE_GUESSES, Integer.MAX_VALUE).size();
+        assertEquals(4000, ranked);
+        java.util.List<Leaderboard.Standing> all = board.top(Leaderboard.Period.DAILY, Leaderboard.Metric.AVERAGE_GUESSES, 4000);
+        for (Leaderboard.Standing standing : all) // The Fenwick ranks agree with the skip list order
+            assertEquals(standing.getRank(), board.rank(Leaderboard.Period.DAILY, Leaderboard.Metric.AVERAGE_GUESSES, standing.getPlayer()));
+    }
+
+    @Test
+    @DisplayName("Guess Analytics Finds Popular Openers And Counts Players")
+    void test27() throws Exception {
+        GuessAnalytics analytics = new GuessAnalytics(4);
+        WordIndex index = WordIndex.shared();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int first = t * 10_000;
+            threads[t] = new Thread(() -> { // "crane" opens half the games, the rest open with rarer words
+                for (int game = 0; game < 10_000; game++) {
+                    long opener = game % 2 == 0 ? WordIndex.pack("crane") : index.word(game % index.size());
+                    analytics.guessed(opener, 5, 0);
+                    analytics.guessed(WordIndex.pack("sloth"), 5, 1);
+                    analytics.ended(first + game, game % 3 == 0 ? "sloth" : "crane", game % 5 != 0);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) t.join();
+        assertEquals("crane", GuessAnalytics.wordOf(analytics.topOpeners(1).get(0).getKey()));
+        assertTrue(analytics.topOpeners(1).get(0).getCount() >= 20_000);
+        assertTrue(analytics.guessCount("sloth") >= 40_000 && analytics.guessCount("sloth") <= 40_000 + 80_000 / 2048 * 4);
+        assertEquals(80_000, analytics.getGuessTotal());
+        int solved = 0; // Sloth answers games 0, 3, 6...; games 0, 15, 30... were lost
+        for (int game = 0; game < 10_000; game++) if (game % 3 == 0 && game % 5 != 0) solved++;
+        assertTrue(analytics.solvedCount("sloth") >= 4 * solved);
+        assertEquals(40_000, analytics.distinctPlayers(), 40_000 * 0.05);
+        assertEquals(4 * 3334, analytics.distinctPlayers("sloth"), 4 * 3334 * 0.3);
+        assertEquals(0, analytics.distinctPlayers("pygmy"), 1);
+
+        model = new Model(2, 2, 1, "crate");
+        GuessAnalytics games = new GuessAnalytics(1);
+        model.addListener(games.listener(9, model.getWordLength()));
+        for (String guess : new String[]{"trace", "crate"}) {
+            model.submitWord(guess);
+            model.submitGuess();
+        }
+        assertEquals(1, games.solvedCount("crate"));
+        assertEquals("trace", GuessAnalytics.wordOf(games.topOpeners(5).get(0).getKey()));
+        assertEquals(1, games.distinctPlayers());
+        games.ended(0, "crate", true); // Anonymous games are solves but not players
+        assertEquals(2, games.solvedCount("crate"));
+        assertEquals(1, games.distinctPlayers());
     }
 }
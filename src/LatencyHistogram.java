@@ -0,0 +1,95 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of durations in nanoseconds.
+ * Values below 16 get a bucket each; above that every power of two is split into 16 linear sub-buckets,
+ * so any recorded value is reported to within 1/16 of itself. Recording is one atomic increment per
+ * bucket plus two LongAdder adds and never allocates.
+ */
+public class LatencyHistogram {
+    // Constants
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+    // Attributes
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder(); // Sum of every recorded value
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Adds one duration
+     * @pre. None
+     * @post. Negative values are recorded as 0
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        this.counts.incrementAndGet(bucket(nanos));
+        this.count.increment();
+        this.total.add(nanos);
+        long m;
+        while (nanos > (m = this.max.get()) && !this.max.compareAndSet(m, nanos)) ;
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        return (msb - SUB_BITS + 1) * SUB_BUCKETS + (int) ((value >>> (msb - SUB_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int msb = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (msb - SUB_BITS);
+    }
+
+    /**
+     * Returns the value below which a fraction q of the recorded values fall, as the middle of its bucket
+     * @pre. 0 <= q <= 1
+     * @post. Returns 0 if nothing has been recorded
+     */
+    public long percentile(double q) {
+        long[] snapshot = new long[BUCKETS];
+        long n = 0;
+        for (int b = 0; b < BUCKETS; b++) n += snapshot[b] = this.counts.get(b);
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += snapshot[b];
+            if (seen >= rank) {
+                long low = lowerBound(b);
+                long high = b + 1 < BUCKETS ? lowerBound(b + 1) : Long.MAX_VALUE;
+                return Math.min(low + (high - low) / 2, getMax());
+            }
+        }
+        return getMax();
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public double getMean() {
+        long n = this.count.sum();
+        return n == 0 ? 0 : (double) this.total.sum() / n;
+    }
+
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Forgets every recorded value. Values recorded while resetting may be partly kept.
+     * @pre. None
+     * @post. None
+     */
+    public void reset() {
+        for (int b = 0; b < BUCKETS; b++) this.counts.set(b, 0);
+        this.count.reset();
+        this.total.reset();
+        this.max.set(0);
+    }
+}
@@ -0,0 +1,264 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Live rankings of players by fewest average guesses, longest winning streak and fastest solve, over the
+ * current UTC day, the current week (from Monday) and all time.
+ * Every ranking keeps a concurrent skip list of (score, player) for top-K and a Fenwick tree of player counts
+ * per score for rank queries, both O(log n) to update. Scores are small integers, lower is better, and players
+ * with equal scores share a rank. A period rolls over by swapping in a fresh window on the first call after it
+ * ends, so nothing pauses; a game recorded at the instant of rollover may count towards the closing window.
+ */
+public class Leaderboard {
+    // Constants
+    public enum Period { DAILY, WEEKLY, ALL_TIME }
+
+    public enum Metric {
+        AVERAGE_GUESSES(1 << 11), // Hundredths of a guess, lost games counting as one guess more than allowed
+        LONGEST_STREAK(1 << 16), // Games won in a row, stored as BUCKETS - 1 - streak
+        FASTEST_SOLVE(1 << 16); // Tenths of a second, only games won
+
+        private final int buckets; // Scores run from 0 to buckets - 1, larger values are clamped
+
+        Metric(int buckets) {
+            this.buckets = buckets;
+        }
+
+        /**
+         * Natural value of a score: guesses, games or milliseconds
+         */
+        public double value(int score) {
+            switch (this) {
+                case AVERAGE_GUESSES: return score / 100.0;
+                case LONGEST_STREAK: return this.buckets - 1 - score;
+                default: return score * 100.0;
+            }
+        }
+    }
+
+    private static final Metric[] METRICS = Metric.values();
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+    private static final int MONDAY_OFFSET = 3; // 1 January 1970 was a Thursday
+    // Attributes
+    private final LongSupplier clock; // Milliseconds since the epoch
+    private final int lossGuesses; // Guesses a lost game counts for in the average
+    private final List<AtomicReference<Window>> windows = new ArrayList<>();
+
+    public Leaderboard() {
+        this(System::currentTimeMillis, Model.NUMGUESSES + 1);
+    }
+
+    public Leaderboard(LongSupplier clock, int lossGuesses) {
+        this.clock = clock;
+        this.lossGuesses = lossGuesses;
+        long now = clock.getAsLong();
+        for (Period period : Period.values()) this.windows.add(new AtomicReference<>(new Window(epoch(period, now))));
+    }
+
+    private static long epoch(Period period, long millis) {
+        long day = Math.floorDiv(millis, DAY);
+        switch (period) {
+            case DAILY: return day;
+            case WEEKLY: return Math.floorDiv(day + MONDAY_OFFSET, 7);
+            default: return 0;
+        }
+    }
+
+    private Window window(Period period) { // The window of the current period, rolling it over if it has ended
+        AtomicReference<Window> ref = this.windows.get(period.ordinal());
+        long epoch = epoch(period, this.clock.getAsLong());
+        Window window = ref.get();
+        while (window.epoch < epoch) {
+            if (ref.compareAndSet(window, new Window(epoch))) return ref.get();
+            window = ref.get();
+        }
+        return window;
+    }
+
+    /**
+     * Records the end of one game in every period
+     * @pre. guesses >= 1, solveMillis >= 0
+     * @post. None
+     */
+    public void recordGame(long player, boolean won, int guesses, long solveMillis) {
+        for (Period period : Period.values()) window(period).record(player, won, won ? guesses : this.lossGuesses, solveMillis);
+    }
+
+    /**
+     * The best k players of a ranking, best first
+     * @pre. k >= 0
+     * @post. Returned list has at most k elements
+     */
+    public List<Standing> top(Period period, Metric metric, int k) {
+        Ranking ranking = window(period).rankings[metric.ordinal()];
+        List<Standing> top = new ArrayList<>(Math.min(k, 64));
+        int rank = 0, previous = -1, position = 0;
+        for (Iterator<Entry> it = ranking.entries.iterator(); it.hasNext() && top.size() < k; ) {
+            Entry e = it.next();
+            position++;
+            if (e.score != previous) rank = position; // Equal scores share a rank
+            previous = e.score;
+            top.add(new Standing(e.player, rank, metric.value(e.score)));
+        }
+        return top;
+    }
+
+    /**
+     * Rank of a player: one more than the number of players with a better score
+     * @pre. None
+     * @post. Returns -1 if the player is not ranked in this period
+     */
+    public int rank(Period period, Metric metric, long player) {
+        Window window = window(period);
+        Totals totals = window.players.get(player);
+        int score = totals == null ? -1 : totals.score(metric);
+        return score < 0 ? -1 : window.rankings[metric.ordinal()].better(score) + 1;
+    }
+
+    public int getPlayerCount(Period period) {
+        return window(period).players.size();
+    }
+
+    /**
+     * Listener recording the games of one Model for player, timing each game from its reset
+     * @pre. None
+     * @post. Every GameWon or GameLost the model publishes is recorded
+     */
+    public GameListener listener(long player) {
+        long[] start = {this.clock.getAsLong()};
+        return event -> {
+            if (event instanceof GameEvent.GameReset) start[0] = this.clock.getAsLong();
+            else if (event instanceof GameEvent.GameWon || event instanceof GameEvent.GameLost)
+                recordGame(player, event instanceof GameEvent.GameWon, event.getTurn() + 1, this.clock.getAsLong() - start[0]);
+        };
+    }
+
+    /**
+     * One player's place in a ranking
+     */
+    public static final class Standing {
+        private final long player;
+        private final int rank;
+        private final double value; // Natural value of the score, see Metric.value
+
+        Standing(long player, int rank, double value) {
+            this.player = player;
+            this.rank = rank;
+            this.value = value;
+        }
+
+        // Getters
+        public long getPlayer() { return player; }
+        public int getRank() { return rank; }
+        public double getValue() { return value; }
+    }
+
+    private static final class Window {
+        final long epoch; // Day or week number of the period this window covers
+        final ConcurrentHashMap<Long, Totals> players = new ConcurrentHashMap<>();
+        final Ranking[] rankings = new Ranking[METRICS.length];
+
+        Window(long epoch) {
+            this.epoch = epoch;
+            for (Metric m : METRICS) this.rankings[m.ordinal()] = new Ranking(m.buckets);
+        }
+
+        void record(long player, boolean won, int guesses, long millis) {
+            // compute() serialises the games of one player, so a player's entries move one game at a time
+            this.players.compute(player, (id, old) -> {
+                Totals next = (old == null ? Totals.NONE : old).plus(won, guesses, millis);
+                for (Metric m : METRICS)
+                    this.rankings[m.ordinal()].move(id, old == null ? -1 : old.score(m), next.score(m));
+                return next;
+            });
+        }
+    }
+
+    private static final class Totals { // A player's games in one window; replaced, never changed
+        static final Totals NONE = new Totals(0, 0, 0, 0, Long.MAX_VALUE);
+        final int games;
+        final long guesses;
+        final int streak;
+        final int maxStreak;
+        final long fastest; // Quickest win in milliseconds, Long.MAX_VALUE before the first
+
+        Totals(int games, long guesses, int streak, int maxStreak, long fastest) {
+            this.games = games;
+            this.guesses = guesses;
+            this.streak = streak;
+            this.maxStreak = maxStreak;
+            this.fastest = fastest;
+        }
+
+        Totals plus(boolean won, int guesses, long millis) {
+            int streak = won ? this.streak + 1 : 0;
+            return new Totals(this.games + 1, this.guesses + guesses, streak, Math.max(this.maxStreak, streak),
+                    won ? Math.min(this.fastest, millis) : this.fastest);
+        }
+
+        int score(Metric metric) { // -1 while unranked
+            int last = metric.buckets - 1;
+            switch (metric) {
+                case AVERAGE_GUESSES:
+                    return (int) Math.min(last, Math.round(this.guesses * 100.0 / this.games));
+                case LONGEST_STREAK:
+                    return this.maxStreak == 0 ? -1 : last - Math.min(this.maxStreak, last);
+                default:
+                    return this.fastest == Long.MAX_VALUE ? -1 : (int) Math.min(last, this.fastest / 100);
+            }
+        }
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        final int score;
+        final long player;
+
+        Entry(int score, long player) {
+            this.score = score;
+            this.player = player;
+        }
+
+        @Override
+        public int compareTo(Entry o) {
+            return this.score != o.score ? Integer.compare(this.score, o.score) : Long.compare(this.player, o.player);
+        }
+    }
+
+    private static final class Ranking {
+        final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>();
+        final AtomicIntegerArray counts; // Fenwick tree of players per score, 1-based
+
+        Ranking(int buckets) {
+            this.counts = new AtomicIntegerArray(buckets + 1);
+        }
+
+        void move(long player, int from, int to) {
+            if (from == to) return;
+            if (from >= 0) {
+                this.entries.remove(new Entry(from, player));
+                add(from, -1);
+            }
+            if (to >= 0) {
+                this.entries.add(new Entry(to, player));
+                add(to, 1);
+            }
+        }
+
+        private void add(int score, int delta) {
+            for (int i = score + 1; i < this.counts.length(); i += i & -i) this.counts.getAndAdd(i, delta);
+        }
+
+        int better(int score) { // Players with a score below score
+            int n = 0;
+            for (int i = score; i > 0; i -= i & -i) n += this.counts.get(i);
+            return n;
+        }
+    }
+}
@@ -1,43 +1,26 @@
-import java.util.ArrayList;
-import java.util.List;
-
 public class Letter {
     private final String name;
-    private List<Integer> posList; // Positions that the letter appears in the answer
+    private final int code; // Position of the letter in the alphabet, as packed by WordIndex
     private int buttonState;
-    private int[] roundStates;
-    private boolean isInGame;
     private boolean hasBeenUsed;
 
     public Letter(String name) {
         this.name = name;
+        this.code = name.charAt(0) - 'a';
         initialise();
     }
 
     public void initialise() {
         this.buttonState = Model.UNASSIGNED;
         this.hasBeenUsed = false;
-        this.isInGame = false;
-        this.posList = new ArrayList<>();
-        this.roundStates = new int[]{Model.WRONG, Model.WRONG, Model.WRONG, Model.WRONG, Model.WRONG};
-    }
-
-    public void setInGame() {
-        this.isInGame = true;
-        this.roundStates = new int[]{Model.PARTIAL, Model.PARTIAL, Model.PARTIAL, Model.PARTIAL, Model.PARTIAL};
-        for (int i : this.posList) this.roundStates[i] = Model.CORRECT;
-    }
-
-    public void addPos(int i) {
-        this.posList.add(i);
     }
 
     public String getName() {
         return name;
     }
 
-    public List<Integer> getPosList() {
-        return posList;
+    public int getCode() {
+        return code;
     }
 
     public int getButtonState() {
@@ -55,10 +38,4 @@ public class Letter {
     public void setHasBeenUsed(boolean hasBeenUsed) {
         this.hasBeenUsed = hasBeenUsed;
     }
-
-    public boolean isInGame() {
-        return isInGame;
-    }
-
-    public int[] getRoundStates() { return roundStates; }
 }
@@ -0,0 +1,36 @@
+import java.util.List;
+
+/**
+ * Packed word list of a single length, answers first, as held by WordIndex (int words of up to six letters)
+ * and LongWordIndex (long words of seven to eleven letters). Words are packed five bits per letter with the
+ * first letter in the lowest bits, so packed() widens either kind to a long that Scorer can compare.
+ */
+public interface Lexicon {
+
+    int length();
+
+    int size();
+
+    int answerCount();
+
+    /**
+     * Returns the position of word, or -1 if it is absent or not length() letters
+     * @pre. None
+     * @post. None
+     */
+    int indexOf(CharSequence word);
+
+    /**
+     * Returns the word at position i packed into a long
+     * @pre. 0 <= i < size()
+     * @post. None
+     */
+    long packed(int i);
+
+    /**
+     * Returns a read-only String view of the words in [from, to)
+     * @pre. 0 <= from <= to <= size()
+     * @post. None
+     */
+    List<String> asList(int from, int to);
+}
@@ -0,0 +1,129 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable index over the guess and answer lists of one word length between seven and eleven letters.
+ * Laid out like WordIndex, but each word is packed into a long since it no longer fits the 30 bits of an int.
+ */
+public class LongWordIndex implements Lexicon {
+    // Constants
+    public static final int MIN_LENGTH = WordIndex.MAX_LENGTH + 1;
+    public static final int MAX_LENGTH = 11;
+    public static final long INVALID = -1L;
+    private static final long EMPTY = -1L;
+    // Attributes
+    private final int length; // Letters per word
+    private final long[] words; // Packed words, answers first
+    private final int answerCount;
+    private final long[] keys; // Hash table of packed words, EMPTY where unused
+    private final int[] slots; // Index into words for each occupied key
+    private final int shift; // Shift used to reduce the hash to a table slot
+
+    /**
+     * Builds an index of length-letter words
+     * @pre. Every element is a word packed by pack(word, length), answers are distinct
+     * @post. indexOf() is non-negative for every answer and every guess
+     */
+    public LongWordIndex(int length, long[] answers, long[] guesses) {
+        if (length < MIN_LENGTH || length > MAX_LENGTH) throw new IllegalArgumentException("Unsupported word length " + length);
+        this.length = length;
+        int capacity = Integer.highestOneBit(Math.max(2, answers.length + guesses.length) * 2 - 1) << 1;
+        this.shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        this.keys = new long[capacity];
+        this.slots = new int[capacity];
+        Arrays.fill(this.keys, EMPTY);
+        long[] words = new long[answers.length + guesses.length];
+        int n = 0;
+        for (long w : answers) if (insert(w, n)) words[n++] = w;
+        this.answerCount = n;
+        for (long w : guesses) if (insert(w, n)) words[n++] = w;
+        this.words = Arrays.copyOf(words, n);
+    }
+
+    private boolean insert(long word, int index) {
+        int slot = slot(word);
+        while (this.keys[slot] != EMPTY) {
+            if (this.keys[slot] == word) return false; // Duplicate
+            slot = (slot + 1) & (this.keys.length - 1);
+        }
+        this.keys[slot] = word;
+        this.slots[slot] = index;
+        return true;
+    }
+
+    private int slot(long word) {
+        return (int) ((word * 0x9E3779B97F4A7C15L) >>> this.shift);
+    }
+
+    /**
+     * Returns the position of a packed word in the index, or -1 if it is absent
+     * @pre. None
+     * @post. None
+     */
+    public int indexOf(long word) {
+        if (word == INVALID) return -1;
+        int slot = slot(word);
+        long key;
+        while ((key = this.keys[slot]) != EMPTY) {
+            if (key == word) return this.slots[slot];
+            slot = (slot + 1) & (this.keys.length - 1);
+        }
+        return -1;
+    }
+
+    @Override
+    public int indexOf(CharSequence word) {
+        return indexOf(pack(word, this.length));
+    }
+
+    /**
+     * Packs a lowercase word of length letters into a long
+     * @pre. 1 <= length <= MAX_LENGTH
+     * @post. Returns INVALID if word is not exactly length characters in [a-z]
+     */
+    public static long pack(CharSequence word, int length) {
+        if (word.length() != length) return INVALID;
+        long packed = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            int c = word.charAt(i) - 'a';
+            if (c < 0 || c > 25) return INVALID;
+            packed = (packed << WordIndex.BITS_PER_LETTER) | c;
+        }
+        return packed;
+    }
+
+    @Override
+    public List<String> asList(int from, int to) {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int i) {
+                Objects.checkIndex(i, to - from);
+                return WordIndex.unpack(words[from + i], length);
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof CharSequence)) return false;
+                int i = indexOf((CharSequence) o);
+                return i >= from && i < to;
+            }
+        };
+    }
+
+    // Getters
+    @Override
+    public int length() { return length; }
+    @Override
+    public int size() { return words.length; }
+    @Override
+    public int answerCount() { return answerCount; }
+    @Override
+    public long packed(int i) { return words[i]; }
+}
@@ -0,0 +1,100 @@
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Registry of the OperationStats timed by Model and Controller.
+ * Each operation is published as the MBean wordle:type=Operation,name=NAME and the registry itself as
+ * wordle:type=Metrics, whose dump operation writes every operation to a file.
+ * Recording is switched off with -Dwordle.metrics=false.
+ */
+public final class Metrics implements MetricsMBean {
+    // Constants
+    public static final boolean ENABLED = !"false".equals(System.getProperty("wordle.metrics"));
+    public static final String DOMAIN = "wordle";
+    private static final Metrics INSTANCE = new Metrics();
+    // Attributes
+    private final Map<String, OperationStats> operations = new ConcurrentSkipListMap<>();
+
+    static {
+        register(INSTANCE, DOMAIN + ":type=Metrics");
+    }
+
+    private Metrics() {}
+
+    /**
+     * Returns the stats for name, creating and registering them on first use
+     * @pre. name is a valid ObjectName value
+     * @post. Every call with the same name returns the same instance
+     */
+    public static OperationStats operation(String name) {
+        return sampled(name, 1);
+    }
+
+    /**
+     * Returns the stats for name, timing one call in sampleRate once callers go through sample()
+     * @pre. name is a valid ObjectName value, sampleRate is a power of two
+     * @post. Every call with the same name returns the same instance, with the rate of the first call
+     */
+    public static OperationStats sampled(String name, int sampleRate) {
+        return INSTANCE.operations.computeIfAbsent(name, n -> {
+            OperationStats stats = new OperationStats(n, sampleRate);
+            register(stats, DOMAIN + ":type=Operation,name=" + n);
+            return stats;
+        });
+    }
+
+    private static void register(Object mbean, String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (!server.isRegistered(objectName)) server.registerMBean(mbean, objectName);
+        } catch (JMException | SecurityException e) { // Metrics still work without JMX
+            System.err.println("Could not register " + name + ": " + e);
+        }
+    }
+
+    public static Metrics get() {
+        return INSTANCE;
+    }
+
+    @Override
+    public String[] getOperations() {
+        return this.operations.keySet().toArray(new String[0]);
+    }
+
+    /**
+     * Formats every operation as one line of count, errors, mean, percentiles and max in microseconds
+     * @pre. None
+     * @post. None
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-28s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "errors", "mean_us", "p50_us", "p99_us", "p999_us", "max_us"));
+        for (OperationStats s : this.operations.values())
+            sb.append(String.format("%-28s %10d %8d %10.2f %10.2f %10.2f %10.2f %10.2f%n", s.getName(), s.getCount(),
+                    s.getErrors(), s.getMeanNanos() / 1e3, s.getP50Nanos() / 1e3, s.getP99Nanos() / 1e3,
+                    s.getP999Nanos() / 1e3, s.getMaxNanos() / 1e3));
+        return sb.toString();
+    }
+
+    @Override
+    public String dump(String file) throws IOException {
+        String report = report();
+        Files.write(Paths.get(file), report.getBytes(StandardCharsets.UTF_8));
+        return report;
+    }
+
+    @Override
+    public void resetAll() {
+        for (OperationStats s : this.operations.values()) s.reset();
+    }
+}
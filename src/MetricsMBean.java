@@ -0,0 +1,14 @@
+/**
+ * JMX operations over every registered OperationStats.
+ */
+public interface MetricsMBean {
+
+    String[] getOperations();
+
+    /**
+     * Writes a table of every operation to file and returns the table
+     */
+    String dump(String file) throws java.io.IOException;
+
+    void resetAll();
+}
@@ -1,66 +1,116 @@
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
-public class Model extends Observable {
+public class Model {
     // Constants
-    private static final String ANSWER_FILE = "src/assets/common.txt";
-    private static final String WORDS_FILE = "src/assets/words.txt";
+    public static final String ANSWER_FILE = "src/assets/common.txt";
+    public static final String WORDS_FILE = "src/assets/words.txt";
     public static final int UNASSIGNED = 0;
     public static final int WRONG = 1;
     public static final int PARTIAL = 2;
     public static final int CORRECT = 3;
     public static final int NUMGUESSES = 6;
-    public static String FIXED_ANSWER = "undid";
+    public static String FIXED_ANSWER = "undid"; // Default answer for models created without one
+    private static final String[] LENGTH_NAMES = {"zero", "one", "two", "three", "four", "five", "six", "seven",
+            "eight", "nine", "ten", "eleven"};
+    private static final OperationStats CONSTRUCT = Metrics.operation("Model.construct");
+    private static final OperationStats INITIALISE = Metrics.operation("Model.initialise");
+    private static final OperationStats IS_VALID_WORD = Metrics.sampled("Model.isValidWord", 64); // Too quick to time every call
+    private static final OperationStats SUBMIT_GUESS = Metrics.operation("Model.submitGuess");
     // Flags
     private final boolean spoilerFlag; // Sets whether the game will reveal the answer to the user
     private final boolean randomFlag; // Sets whether the game generates an answer or is provided an answer by user
+    private final boolean adversarialFlag; // Sets whether the answer is only settled as late as the feedback allows
     private final boolean strictFlag; // Sets whether the user can input any five-letter words or not
+    private final String fixedAnswer; // Answer used when randomFlag is false
     private boolean gameFlag; // When true, game is still in play
     private boolean winFlag; // When true, player has won the game
     // Game attributes
+    private final int wordLength; // Letters per word
+    private final int numGuesses; // Guesses allowed per game
+    private final Lexicon lexicon; // Packed valid guesses and answers of wordLength letters
+    private final WordIndex index; // The same words when they are five letters long, otherwise null
+    private final CandidateMasks masks; // Per-guess answer masks for five-letter games, otherwise null
+    private final CandidateSet candidates; // Answers still consistent with the submitted guesses
+    private final Dawg dawg; // Prefix automaton of the guess list, null in loose mode and for off-heap lexicons
+    private final int[] prefixStates; // prefixStates[k] is the DAWG state after the first k letters of currentGuess
+    private final Partition partition; // Buckets the candidates by pattern in adversarial mode, otherwise null
     private final List<String> answers; // List of valid answers
     private final List<String> words; // List of valid guesses
     private HashMap<String, Letter> alphabet; // List of Letter objects in the game
+    private Letter[] letters; // The same Letter objects indexed by Letter.getCode()
     private int turnCount; // Which turn the game is on
     private List<Letter> answer; // The answer the user needs to guess to win
+    private long packedAnswer; // The answer packed as in the lexicon
     private List<Letter> currentGuess; // Most recent guess submitted by user
     private List<List<Letter>> submittedGuesses; // List of all submitted guesses
+    private final long[] packedGuesses; // Each submitted guess packed as in the lexicon
+    private final int[] patterns; // Scorer pattern of each submitted guess
+    private final GameEventBus events = new GameEventBus(); // Listeners notified of every change
     public List<Letter> unusedLetters; // List of unused letters
     public List<Letter> wrongLetters; // List of incorrectly guessed letters
     public List<Letter> partialLetters; // List of letters that are in the answer but wrong position
     public List<Letter> correctLetters; // List of correctly guessed letters
 
     public Model(int randomMode, int spoilerMode, int strictMode) throws IOException {
-        // Initialise answer list
-        BufferedReader ar = new BufferedReader(new FileReader(ANSWER_FILE));
-        this.answers = new ArrayList<>();
-        String line;
-        while((line = ar.readLine()) != null) { this.answers.add(line); }
-        ar.close();
-        // Initialise words list
-        BufferedReader wr = new BufferedReader(new FileReader(WORDS_FILE));
-        this.words = new ArrayList<>();
-        while((line = wr.readLine()) != null) { this.words.add(line); }
-        this.words.addAll(this.answers);
-        wr.close();
+        this(randomMode, spoilerMode, strictMode, FIXED_ANSWER);
+    }
+
+    public Model(int randomMode, int spoilerMode, int strictMode, String fixedAnswer) throws IOException {
+        this(randomMode, spoilerMode, strictMode, fixedAnswer, WordIndex.shared(), NUMGUESSES);
+    }
+
+    /**
+     * Creates a game over the words of lexicon, whose length sets the word length.
+     * randomMode 1 picks a random answer, 2 plays fixedAnswer and 3 is adversarial: after every guess the answer
+     * moves to the largest group of remaining answers that share a pattern, as in Absurdle.
+     * @pre. numGuesses > 0, fixedAnswer is lexicon.length() letters when randomMode is 2
+     * @post. getWordLength() == lexicon.length()
+     */
+    public Model(int randomMode, int spoilerMode, int strictMode, String fixedAnswer, Lexicon lexicon, int numGuesses) {
+        long start = System.nanoTime();
+        if (numGuesses < 1) throw new IllegalArgumentException("A game needs at least one guess");
+        // Initialise answer and words lists
+        this.lexicon = lexicon;
+        this.wordLength = lexicon.length();
+        this.numGuesses = numGuesses;
+        this.packedGuesses = new long[numGuesses];
+        this.patterns = new int[numGuesses];
+        this.answers = lexicon.asList(0, lexicon.answerCount());
+        this.words = lexicon.asList(0, lexicon.size());
+        this.index = this.wordLength == WordIndex.WORD_LENGTH && lexicon instanceof WordIndex ? (WordIndex) lexicon : null;
+        this.masks = this.index != null ? CandidateMasks.of(this.index) : null;
+        this.candidates = new CandidateSet(lexicon.answerCount());
         // Set attributes
         this.randomFlag = randomMode == 1;
+        this.adversarialFlag = randomMode == 3;
+        this.partition = this.adversarialFlag ? new Partition(lexicon.answerCount(), Scorer.patterns(this.wordLength)) : null;
         this.spoilerFlag = spoilerMode == 1;
         this.strictFlag = strictMode == 1;
+        this.dawg = this.strictFlag && !(lexicon instanceof OffHeapLexicon) ? Dawg.of(lexicon) : null; // Too big for the heap; checked at enter time
+        this.prefixStates = new int[this.wordLength + 1];
+        if (this.dawg != null) this.prefixStates[0] = this.dawg.root();
+        this.fixedAnswer = fixedAnswer;
         initialise();
+        CONSTRUCT.record(start);
     }
 
     /**
      * Initialises the game attributes
      * @pre. Words and Answers have been successfully initialised
-     * @post. this.answer is a five-letter Letter list
+     * @post. this.answer is a Letter list of getWordLength() letters
      */
     public void initialise() {
-        assert !this.words.isEmpty() && !this.answers.isEmpty();
+        long start = System.nanoTime();
         this.winFlag = false;
         this.gameFlag = true;
         if (this.turnCount > 0) resetAlphabet();
-        else this.alphabet = createAlphabet();
+        else {
+            this.alphabet = createAlphabet();
+            this.letters = new Letter[26];
+            for (Letter l : this.alphabet.values()) this.letters[l.getCode()] = l;
+        }
         this.unusedLetters = new ArrayList<>(this.alphabet.values());
         this.submittedGuesses = new ArrayList<>();
         this.wrongLetters = new ArrayList<>();
@@ -68,15 +118,12 @@ public class Model extends Observable {
         this.correctLetters = new ArrayList<>();
         this.currentGuess = new ArrayList<>();
         this.turnCount = 0;
+        this.candidates.reset();
         this.answer = generateAnswer();
-        int i = 0;
-        for (Letter l : this.answer) { // Update the letters in alphabet
-            assert l != null;
-            l.addPos(i);
-            l.setInGame();
-            i++;
-        }
-        assert this.answer.size() == 5;
+        this.packedAnswer = packLetters(this.answer);
+        this.events.publish(new GameEvent.GameReset());
+        assert this.answer.size() == this.wordLength;
+        INITIALISE.record(start);
     }
 
 
@@ -88,11 +135,7 @@ public class Model extends Observable {
     }
 
     private void resetAlphabet() {
-        String[] letters = "abcdefghijklmnopqrstuvwxyz".split("");
-        for (String c : letters) {
-            Letter l = getLetter(c);
-            l.initialise();
-        }
+        for (Letter l : this.letters) l.initialise();
     }
 
     private List<Letter> generateAnswer() {
@@ -100,19 +143,23 @@ public class Model extends Observable {
         List<Letter> answer = new ArrayList<>();
 
         // If random mode is on, generate the answer by picking a random word from answer list
-        if (this.randomFlag) {
-            Random rand = new Random();
+        // An adversarial game starts the same way but the answer only holds until the first guess
+        if (this.randomFlag || this.adversarialFlag) {
+            if (this.lexicon.answerCount() == 0) throw new IllegalStateException("No " + this.wordLength + "-letter answers");
+            Random rand = ThreadLocalRandom.current();
             a = this.answers.get(rand.nextInt(this.answers.size()));
             String[] sa = a.split("");
             for (String s : sa) answer.add(this.alphabet.get(s));
         }
         // Else, set the fixed word, check it's valid, and then set that as the answer
         else {
-            a = FIXED_ANSWER;
+            a = this.fixedAnswer;
+            if (a.length() != this.wordLength || !WordIndex.isAlphabetic(a))
+                throw new IllegalArgumentException("Fixed answer is not " + this.wordLength + " letters");
             String[] sa = a.split("");
             for (String s : sa) answer.add(this.alphabet.get(s));
         }
-        assert answer.size() == 5; // Answer was initialised with a 5-letter word
+        assert answer.size() == this.wordLength; // Answer was initialised with a word of the game's length
         return answer;
     }
 
@@ -139,42 +186,50 @@ public class Model extends Observable {
 
     /**
      * Checks input guess to see if it is valid
-     * @pre. this.words contains all words from WORDS_FILE, this.strictFlag is set
+     * @pre. this.index contains all words from WORDS_FILE and ANSWER_FILE, this.strictFlag is set
      * @post. None
      */
     public boolean isValidWord(String guess) {
-        if (!guess.matches("[a-z]+")) {
-            System.out.println("Word is not alphabetic!");
-            return false;
-        }
-        if (guess.length() != 5) {
-            System.out.println("Word is not five characters!");
-            return false;
-        }
-        if (this.strictFlag) if (!this.words.contains(guess)) { // If strictFlag is false, no need to check guess list
-            System.out.println("Word is not in the guess list");
-            return false;
-        }
-        return true;
+        if (!IS_VALID_WORD.sample()) return getValidationError(guess) == null;
+        long start = System.nanoTime();
+        boolean valid = getValidationError(guess) == null;
+        IS_VALID_WORD.record(start);
+        return valid;
     }
 
-    private boolean isCorrectGuess() {
-        for (int i = 0; i < 5; i++) {
-            if (this.currentGuess.get(i) != this.answer.get(i))
-                return false;
-        }
-        return true;
+    /**
+     * Explains why a guess is invalid
+     * @pre. None
+     * @post. Returns null if guess is valid
+     */
+    public String getValidationError(String guess) {
+        if (!WordIndex.isAlphabetic(guess)) return "Word is not alphabetic!";
+        if (guess.length() != this.wordLength) return "Word is not " + LENGTH_NAMES[this.wordLength] + " characters!";
+        if (this.strictFlag) if (this.lexicon.indexOf(guess) < 0) // If strictFlag is false, no need to check guess list
+            return "Word is not in the guess list";
+        return null;
+    }
+
+    private static long packLetters(List<Letter> letters) {
+        long packed = 0;
+        for (int i = letters.size() - 1; i >= 0; i--)
+            packed = (packed << WordIndex.BITS_PER_LETTER) | letters.get(i).getCode();
+        return packed;
     }
 
     /**
      * Appends an input Letter to currentGuess
-     * @pre. letter is in the alphabet, this.currentGuess is less than size 5
+     * @pre. letter is in the alphabet, this.currentGuess is shorter than getWordLength()
      * @post. this.currentGuess contains at least one instance of letter
      */
     public void submitLetter(Letter letter) {
         assert alphabet.containsValue(letter);
-        assert this.currentGuess.size() < 5;
+        assert this.currentGuess.size() < this.wordLength;
         this.currentGuess.add(letter);
+        int k = this.currentGuess.size();
+        if (this.dawg != null) this.prefixStates[k] = this.dawg.step(this.prefixStates[k - 1], letter.getCode());
+        if (this.events.hasListeners())
+            this.events.publish(new GameEvent.LetterTyped(this.turnCount, k - 1, letter.getCode(), isCurrentPrefixLive()));
         assert this.currentGuess.contains(letter);
     }
 
@@ -186,47 +241,124 @@ public class Model extends Observable {
     public void removeLastLetter() {
         assert this.currentGuess.size() > 0;
         this.currentGuess.remove(this.currentGuess.size() - 1);
-        assert this.currentGuess.size() < 5;
+        if (this.events.hasListeners())
+            this.events.publish(new GameEvent.LetterTyped(this.turnCount, this.currentGuess.size(), -1, isCurrentPrefixLive()));
+        assert this.currentGuess.size() < this.wordLength;
     }
 
     /**
-     * Submits a five-letter word guess one letter at a time
-     * @pre. word is a five-letter string
-     * @post. this.currentGuess is a list containing five Letter elements
+     * Returns true if the letters typed so far can still become a valid guess, which is O(1) per keystroke
+     * @pre. None
+     * @post. Always true in loose mode or over an OffHeapLexicon, whose guesses are only checked when entered
+     */
+    public boolean isCurrentPrefixLive() {
+        return this.dawg == null || this.prefixStates[this.currentGuess.size()] != Dawg.DEAD;
+    }
+
+    /**
+     * Number of leading letters of word that a valid guess starts with
+     * @pre. None
+     * @post. Returns word.length() in loose mode or over an OffHeapLexicon
+     */
+    public int livePrefixLength(String word) {
+        return this.dawg == null ? word.length() : this.dawg.livePrefixLength(word);
+    }
+
+    /**
+     * Submits a word guess one letter at a time
+     * @pre. word is getWordLength() letters long
+     * @post. this.currentGuess is a list containing getWordLength() Letter elements
      */
     public void submitWord(String word) {
-        assert word.length() == 5;
+        assert word.length() == this.wordLength;
         clearGuess();
         String[] w = word.split("");
         for (String l : w) submitLetter(this.alphabet.get(l));
-        assert this.currentGuess.size() == 5;
+        assert this.currentGuess.size() == this.wordLength;
     }
 
     /**
      * Submits currentGuess as final guess for the turn
-     * @pre. this.currentGuess is a valid five-letter guess,
+     * @pre. this.currentGuess is a valid guess of getWordLength() letters,
+     * @pre. getGameFlag() is true
      * @post. this.submittedGuesses has at least one element
+     * @throws IllegalStateException if the game is already over
      */
     public void submitGuess() {
+        if (!this.gameFlag) throw new IllegalStateException("Game is over after " + this.turnCount + " guesses");
         assert isCurrentGuessValid();
+        long start = System.nanoTime();
+        long packed = packLetters(this.currentGuess);
+        if (this.adversarialFlag) evade(packed);
+        int pattern = score(packed);
         this.submittedGuesses.add(this.currentGuess);
-        updateAlphabet();
+        this.packedGuesses[this.turnCount] = packed;
+        this.patterns[this.turnCount] = pattern;
+        int changedKeys = updateAlphabet(pattern);
+        int g = this.index != null ? this.index.indexOf((int) packed) : -1;
+        if (g >= 0) this.candidates.narrow(this.masks.mask(g, (int) packed, pattern));
+        else if (this.index != null) this.candidates.narrow(this.index, (int) packed, pattern); // Loose-mode guess outside the dictionary
+        else this.candidates.narrow(this.lexicon, packed, pattern);
         this.turnCount++;
-        this.winFlag = isCorrectGuess();
-        if (this.turnCount >= NUMGUESSES) this.gameFlag = false;
+        this.winFlag = pattern == Scorer.allCorrect(this.wordLength);
+        if (this.turnCount >= this.numGuesses) this.gameFlag = false;
         else if (this.winFlag) this.gameFlag = false;
-        setChanged();
-        notifyObservers();
         clearGuess();
+        if (this.events.hasListeners()) publishGuess(packed, pattern, changedKeys);
+        SUBMIT_GUESS.record(start);
         assert this.submittedGuesses.size() > 0;
     }
 
-    private void updateAlphabet() {
+    private void evade(long packed) { // Move the answer to the largest bucket of candidates for this guess
+        if (this.candidates.count() == 0) return; // Loose-mode feedback has already ruled out every answer
+        this.partition.split(this.candidates, this.lexicon, packed);
+        int a = this.partition.member(this.partition.largest(), 0);
+        this.packedAnswer = this.lexicon.packed(a);
+        this.answer = stringToLetterList(this.answers.get(a));
+    }
+
+    private int score(long packed) { // Five-letter games keep the int kernel
+        if (this.index != null) return Scorer.score((int) packed, (int) this.packedAnswer);
+        return Scorer.score(packed, this.packedAnswer, this.wordLength);
+    }
+
+    private void publishGuess(long packed, int pattern, int changedKeys) {
+        byte[] keyStates = new byte[this.letters.length];
+        for (int l = 0; l < keyStates.length; l++) keyStates[l] = (byte) this.letters[l].getButtonState();
+        int turn = this.turnCount - 1;
+        this.events.publish(new GameEvent.GuessScored(new GuessDelta(turn, packed, pattern, changedKeys, keyStates,
+                this.candidates.count(), this.winFlag, !this.gameFlag)));
+        if (this.winFlag) this.events.publish(new GameEvent.GameWon(turn, letterListToString(this.answer)));
+        else if (!this.gameFlag) this.events.publish(new GameEvent.GameLost(turn, letterListToString(this.answer)));
+    }
+
+    /**
+     * Registers listener for every later event of this model
+     * @pre. None
+     * @post. listener is called on the thread that changes the model
+     */
+    public void addListener(GameListener listener) {
+        this.events.addListener(listener);
+    }
+
+    public void removeListener(GameListener listener) {
+        this.events.removeListener(listener);
+    }
+
+    private int updateAlphabet(int pattern) { // Returns a bitmask of the letters whose state changed
         List<Letter> word = this.currentGuess;
-        int i = 0;
+        int changed = 0;
+        // A letter takes its best state across the guess, so a repeated letter is never both wrong and partial
+        for (int i = 0; i < word.size(); i++) {
+            Letter l = word.get(i);
+            int state = Scorer.state(pattern, i);
+            if (state > l.getButtonState()) {
+                l.setButtonState(state);
+                changed |= 1 << l.getCode();
+            }
+        }
         for (Letter l : word) {
             this.unusedLetters.remove(l);
-            setButtonState(l,i);
             switch (l.getButtonState()) {
                 case WRONG:
                     if (!this.wrongLetters.contains(l)) this.wrongLetters.add(l);
@@ -244,39 +376,20 @@ public class Model extends Observable {
                     break;
             }
             l.setHasBeenUsed(true);
-            i++;
-        }
-    }
-
-    private void setButtonState(Letter letter, int i) {
-        if (!letter.hasBeenUsed()) {
-            if (letter.isInGame()) {
-                if (letter.getPosList().contains(i)) letter.setButtonState(CORRECT);
-                else letter.setButtonState(PARTIAL);
-            }
-            else letter.setButtonState(WRONG);
-        }
-        else if (letter.getButtonState() == PARTIAL) {
-            if (letter.getPosList().contains(i)) letter.setButtonState(CORRECT);
         }
+        return changed;
     }
 
     /**
      * Create a string indicating whether each guess letter is correct, partial, or wrong
-     * @pre. this.currentGuess is a valid five-letter word
+     * @pre. this.currentGuess is a valid word of getWordLength() letters
      * @post. indicators is the same length as this.currentGuess
      */
     public String getIndicators() {
         assert isCurrentGuessValid();
-        StringBuilder indicators = new StringBuilder();
-        for (int i = 0; i < this.currentGuess.size(); i++) {
-            Letter l = this.currentGuess.get(i);
-            if (l.getRoundStates()[i] == CORRECT) indicators.append("o");
-            else if (l.getRoundStates()[i] == PARTIAL) indicators.append("~");
-            else if (l.getRoundStates()[i] == WRONG) indicators.append("x");
-        }
+        String indicators = Scorer.indicators(score(packLetters(this.currentGuess)), this.wordLength);
         assert indicators.length() == this.currentGuess.size();
-        return indicators.toString();
+        return indicators;
     }
 
     /**
@@ -319,12 +432,30 @@ public class Model extends Observable {
     public List<String> getWords() {
         return words;
     }
+    public WordIndex getIndex() { // Null unless the game uses five-letter words
+        return index;
+    }
+    public Lexicon getLexicon() {
+        return lexicon;
+    }
+    public int getWordLength() {
+        return wordLength;
+    }
+    public int getNumGuesses() {
+        return numGuesses;
+    }
     public List<Letter> getAnswer() {
         return answer;
     }
+    public int getPackedAnswer() {
+        assert this.wordLength <= WordIndex.MAX_LENGTH;
+        return (int) packedAnswer;
+    }
     public void setAnswer(String answer) {
-        if (isValidWord(answer))
+        if (isValidWord(answer)) {
             this.answer = stringToLetterList(answer);
+            this.packedAnswer = packLetters(this.answer);
+        }
     }
     public void clearGuess() {
         this.currentGuess = new ArrayList<>();
@@ -338,6 +469,9 @@ public class Model extends Observable {
     public boolean isRandomFlag() {
         return randomFlag;
     }
+    public boolean isAdversarialFlag() {
+        return adversarialFlag;
+    }
     public List<Letter> getCurrentGuess() {
         return currentGuess;
     }
@@ -357,4 +491,37 @@ public class Model extends Observable {
     public boolean getGameFlag() { return gameFlag; }
     public boolean getStrictFlag() { return strictFlag; }
     public List<List<Letter>> getSubmittedGuesses() { return submittedGuesses; }
+    public int remainingCandidateCount() {
+        return candidates.count();
+    }
+    public CandidateSet getCandidates() {
+        return candidates;
+    }
+    public String getFirstCandidate() { // Null when no answer fits the feedback
+        int a = candidates.next(0);
+        return a >= 0 ? answers.get(a) : null;
+    }
+    public int getPackedGuess(int turn) {
+        assert turn >= 0 && turn < this.turnCount && this.wordLength <= WordIndex.MAX_LENGTH;
+        return (int) packedGuesses[turn];
+    }
+    public String getGuessWord(int turn) {
+        assert turn >= 0 && turn < this.turnCount;
+        return WordIndex.unpack(packedGuesses[turn], wordLength);
+    }
+    public int getPattern(int turn) {
+        assert turn >= 0 && turn < this.turnCount;
+        return patterns[turn];
+    }
+
+    /**
+     * Immutable snapshot of the game so far, which later guesses leave alone
+     * @pre. getWordLength() <= WordIndex.MAX_LENGTH, getNumGuesses() <= GameState.MAX_GUESSES
+     * @post. Returned state has getTurnCount() turns with the same guesses and patterns
+     */
+    public GameState getState() {
+        int[] guesses = new int[this.turnCount];
+        for (int t = 0; t < guesses.length; t++) guesses[t] = getPackedGuess(t);
+        return GameState.replay(getPackedAnswer(), this.wordLength, this.numGuesses, guesses); // An adversarial answer fits every pattern
+    }
 }
@@ -0,0 +1,219 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Game where every guess is played on 2 to 32 boards at once, each with its own hidden answer (as in
+ * Quordle or Octordle). Board state is kept in flat arrays rather than per-board objects: the answers as packed
+ * longs, one pattern per board and turn, letter states per board and a bitmask of the boards still open,
+ * so a guess is scored against every open board in one Scorer.scoreAll pass.
+ */
+public class MultiBoardModel {
+    // Constants
+    public static final int MIN_BOARDS = 2;
+    public static final int MAX_BOARDS = 32; // Open boards are tracked in an int mask
+    public static final int SOLVED = -1; // Pattern of a board solved on an earlier turn
+    private static final int ALPHABET = 26;
+    // Attributes
+    private final Lexicon lexicon;
+    private final int wordLength;
+    private final int boards;
+    private final int numGuesses;
+    private final boolean strictFlag; // Sets whether guesses must be in the guess list
+    private final String[] fixedAnswers; // Answers of the first boards, the rest random; null for all random
+    private final long[] answers; // Packed answer of each board
+    private final long[] guesses; // Packed guess of each turn
+    private final int[] patterns; // patterns[turn * boards + board]
+    private final byte[] keyStates; // keyStates[board * 26 + letter], best Model state seen on that board
+    private final int[] solvedTurn; // Turn number (from 1) each board was solved on, 0 while open
+    private final int[] scratch; // Reused output of Scorer.scoreAll
+    private final GameEventBus events = new GameEventBus();
+    private int open; // Bit b set while board b is unsolved
+    private int turnCount;
+
+    /**
+     * Creates a game over the words of lexicon
+     * @pre. None
+     * @post. Throws IllegalArgumentException if boards is outside [MIN_BOARDS, MAX_BOARDS], or fixedAnswers is
+     *        not null and holds more than boards words or one not of lexicon.length() letters; boards after
+     *        the last fixed answer get random ones
+     */
+    public MultiBoardModel(Lexicon lexicon, int boards, int numGuesses, int strictMode, String[] fixedAnswers) {
+        if (boards < MIN_BOARDS || boards > MAX_BOARDS)
+            throw new IllegalArgumentException("Boards must be " + MIN_BOARDS + " to " + MAX_BOARDS);
+        if (numGuesses < 1) throw new IllegalArgumentException("A game needs at least one guess");
+        if (fixedAnswers != null && fixedAnswers.length > boards)
+            throw new IllegalArgumentException("Expected at most " + boards + " answers");
+        if ((fixedAnswers == null || fixedAnswers.length < boards) && lexicon.answerCount() < boards)
+            throw new IllegalArgumentException("Not enough answers for " + boards + " boards");
+        this.lexicon = lexicon;
+        this.wordLength = lexicon.length();
+        this.boards = boards;
+        this.numGuesses = numGuesses;
+        this.strictFlag = strictMode == 1;
+        this.fixedAnswers = fixedAnswers;
+        this.answers = new long[boards];
+        this.guesses = new long[numGuesses];
+        this.patterns = new int[numGuesses * boards];
+        this.keyStates = new byte[boards * ALPHABET];
+        this.solvedTurn = new int[boards];
+        this.scratch = new int[boards];
+        initialise();
+    }
+
+    /**
+     * Starts a new game with new answers on the boards without a fixed one
+     * @pre. None
+     * @post. getTurnCount() == 0 and every board is open
+     */
+    public void initialise() {
+        int fixed = this.fixedAnswers == null ? 0 : this.fixedAnswers.length;
+        for (int b = 0; b < fixed; b++) {
+            long packed = LongWordIndex.pack(this.fixedAnswers[b].toLowerCase(), this.wordLength);
+            if (packed == LongWordIndex.INVALID)
+                throw new IllegalArgumentException("Answer " + this.fixedAnswers[b] + " is not " + this.wordLength + " letters");
+            this.answers[b] = packed;
+        }
+        Random rand = ThreadLocalRandom.current();
+        for (int b = fixed; b < this.boards; b++) { // Distinct answers, so no two boards are the same
+            long packed;
+            boolean taken;
+            do {
+                packed = this.lexicon.packed(rand.nextInt(this.lexicon.answerCount()));
+                taken = false;
+                for (int c = 0; c < b; c++) taken |= this.answers[c] == packed;
+            } while (taken);
+            this.answers[b] = packed;
+        }
+        Arrays.fill(this.keyStates, (byte) Model.UNASSIGNED);
+        Arrays.fill(this.solvedTurn, 0);
+        this.open = allBoards();
+        this.turnCount = 0;
+        this.events.publish(new GameEvent.GameReset());
+    }
+
+    /**
+     * Explains why a guess is invalid
+     * @pre. None
+     * @post. Returns null if guess is valid
+     */
+    public String getValidationError(String guess) {
+        if (!WordIndex.isAlphabetic(guess)) return "Word is not alphabetic!";
+        if (guess.length() != this.wordLength) return "Word is not " + this.wordLength + " characters!";
+        if (this.strictFlag && this.lexicon.indexOf(guess) < 0) return "Word is not in the guess list";
+        return null;
+    }
+
+    public boolean isValidWord(String guess) {
+        return getValidationError(guess) == null;
+    }
+
+    /**
+     * Plays guess on every open board
+     * @pre. isValidWord(guess) and !isOver()
+     * @post. getTurnCount() has increased by one
+     */
+    public void submitGuess(String guess) {
+        assert isValidWord(guess) && !isOver();
+        long packed = LongWordIndex.pack(guess, this.wordLength);
+        int turn = this.turnCount;
+        int row = turn * this.boards;
+        int allCorrect = Scorer.allCorrect(this.wordLength);
+        Scorer.scoreAll(packed, this.answers, this.wordLength, this.open, this.scratch);
+        Arrays.fill(this.patterns, row, row + this.boards, SOLVED);
+        for (int open = this.open; open != 0; open &= open - 1) {
+            int b = Integer.numberOfTrailingZeros(open);
+            int pattern = this.scratch[b];
+            this.patterns[row + b] = pattern;
+            for (int i = 0; i < this.wordLength; i++) {
+                int k = b * ALPHABET + WordIndex.letterAt(packed, i);
+                int state = Scorer.state(pattern, i);
+                if (state > this.keyStates[k]) this.keyStates[k] = (byte) state;
+            }
+            if (pattern == allCorrect) {
+                this.open &= ~(1 << b);
+                this.solvedTurn[b] = turn + 1;
+            }
+        }
+        this.guesses[turn] = packed;
+        this.turnCount++;
+        if (this.events.hasListeners()) {
+            int solved = ~this.open & allBoards();
+            this.events.publish(new GameEvent.BoardsScored(turn, packed,
+                    Arrays.copyOfRange(this.patterns, row, row + this.boards), solved));
+            if (isWon()) this.events.publish(new GameEvent.GameWon(turn, String.join(",", getAnswers())));
+            else if (isOver()) this.events.publish(new GameEvent.GameLost(turn, String.join(",", getAnswers())));
+        }
+    }
+
+    private int allBoards() {
+        return this.boards == MAX_BOARDS ? -1 : (1 << this.boards) - 1;
+    }
+
+    public void addListener(GameListener listener) {
+        this.events.addListener(listener);
+    }
+
+    public void removeListener(GameListener listener) {
+        this.events.removeListener(listener);
+    }
+
+    /**
+     * Returns the pattern of board on turn
+     * @pre. 0 <= turn < getTurnCount(), 0 <= board < getBoards()
+     * @post. Returns SOLVED if the board was solved before turn
+     */
+    public int getPattern(int board, int turn) {
+        return this.patterns[turn * this.boards + board];
+    }
+
+    public int getKeyState(int board, int letter) {
+        return this.keyStates[board * ALPHABET + letter];
+    }
+
+    public boolean isSolved(int board) {
+        return (this.open & (1 << board)) == 0;
+    }
+
+    /**
+     * Turn number (from 1) the board was solved on
+     * @pre. None
+     * @post. Returns 0 if the board is still open
+     */
+    public int getSolvedTurn(int board) {
+        return this.solvedTurn[board];
+    }
+
+    public int getSolvedCount() {
+        return this.boards - Integer.bitCount(this.open);
+    }
+
+    public boolean isWon() {
+        return this.open == 0;
+    }
+
+    public boolean isOver() {
+        return this.open == 0 || this.turnCount >= this.numGuesses;
+    }
+
+    public String[] getAnswers() {
+        String[] words = new String[this.boards];
+        for (int b = 0; b < this.boards; b++) words[b] = getAnswer(b);
+        return words;
+    }
+
+    public String getAnswer(int board) {
+        return WordIndex.unpack(this.answers[board], this.wordLength);
+    }
+
+    public String getGuessWord(int turn) {
+        return WordIndex.unpack(this.guesses[turn], this.wordLength);
+    }
+
+    // Getters
+    public int getBoards() { return boards; }
+    public int getNumGuesses() { return numGuesses; }
+    public int getWordLength() { return wordLength; }
+    public int getTurnCount() { return turnCount; }
+    public boolean getStrictFlag() { return strictFlag; }
+}
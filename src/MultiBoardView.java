@@ -0,0 +1,124 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+
+/**
+ * Window for a MultiBoardModel: one small grid of tiles per board, four boards to a row, and a text field for
+ * guesses. Only the row of the scored turn is touched on each guess, and boards solved earlier are left alone.
+ */
+public class MultiBoardView implements GameListener {
+    // Constants
+    private static final int TILE = 22;
+    private static final int GAP = 2;
+    private static final int COLUMNS = 4; // Boards per row
+    private static final Color[] COLOURS = {Color.lightGray, Color.darkGray, Color.yellow, Color.green}; // By letter state
+    // Attributes
+    private final MultiBoardModel model;
+    private final JFrame frame;
+    private final JLabel[][] tiles; // tiles[board][turn * wordLength + position]
+    private final JLabel[] titles; // Board headings, showing the turn a board was solved on
+    private final JTextField input = new JTextField();
+    private final JLabel status = new JLabel(" ");
+
+    public MultiBoardView(MultiBoardModel model) {
+        this.model = model;
+        this.frame = new JFrame("Wordle Game - " + model.getBoards() + " boards");
+        this.frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        this.tiles = new JLabel[model.getBoards()][model.getNumGuesses() * model.getWordLength()];
+        this.titles = new JLabel[model.getBoards()];
+
+        JPanel grid = new JPanel(new GridLayout(0, Math.min(COLUMNS, model.getBoards()), 10, 10));
+        for (int b = 0; b < model.getBoards(); b++) grid.add(initBoard(b));
+
+        JButton enter = new JButton("ENT");
+        JButton newGame = new JButton("New Game");
+        enter.addActionListener((ActionEvent e) -> {enterHandler();});
+        this.input.addActionListener((ActionEvent e) -> {enterHandler();});
+        newGame.addActionListener((ActionEvent e) -> {model.initialise();});
+        JPanel controls = new JPanel(new BorderLayout(5, 5));
+        controls.add(this.input, BorderLayout.CENTER);
+        JPanel buttons = new JPanel();
+        buttons.add(enter);
+        buttons.add(newGame);
+        controls.add(buttons, BorderLayout.EAST);
+        controls.add(this.status, BorderLayout.SOUTH);
+
+        this.frame.setLayout(new BorderLayout(10, 10));
+        this.frame.add(new JScrollPane(grid), BorderLayout.CENTER);
+        this.frame.add(controls, BorderLayout.SOUTH);
+        this.frame.pack();
+        this.frame.setVisible(true);
+        model.addListener(this);
+    }
+
+    private JPanel initBoard(int board) { // A heading over numGuesses rows of wordLength tiles
+        int length = this.model.getWordLength();
+        JPanel tiles = new JPanel(new GridLayout(this.model.getNumGuesses(), length, GAP, GAP));
+        for (int t = 0; t < this.tiles[board].length; t++) {
+            JLabel tile = new JLabel();
+            tile.setPreferredSize(new Dimension(TILE, TILE));
+            tile.setOpaque(true);
+            tile.setHorizontalAlignment(SwingConstants.CENTER);
+            tile.setBackground(Color.lightGray);
+            this.tiles[board][t] = tile;
+            tiles.add(tile);
+        }
+        this.titles[board] = new JLabel(String.valueOf(board + 1), SwingConstants.CENTER);
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.add(this.titles[board], BorderLayout.NORTH);
+        panel.add(tiles, BorderLayout.CENTER);
+        return panel;
+    }
+
+    private void enterHandler() {
+        if (this.model.isOver()) return;
+        String guess = this.input.getText().trim().toLowerCase();
+        String invalid = this.model.getValidationError(guess);
+        this.status.setText(invalid != null ? invalid : " ");
+        if (invalid == null) {
+            this.model.submitGuess(guess);
+            this.input.setText("");
+        }
+    }
+
+    @Override
+    public void onEvent(GameEvent event) { // Swing components are only touched on the event dispatch thread
+        if (SwingUtilities.isEventDispatchThread()) handle(event);
+        else SwingUtilities.invokeLater(() -> handle(event));
+    }
+
+    private void handle(GameEvent event) {
+        if (event instanceof GameEvent.BoardsScored) apply((GameEvent.BoardsScored) event);
+        else if (event instanceof GameEvent.GameWon) this.status.setText("Solved every board!");
+        else if (event instanceof GameEvent.GameLost)
+            this.status.setText("The answers were " + ((GameEvent.GameLost) event).getAnswer());
+        else if (event instanceof GameEvent.GameReset) reset();
+    }
+
+    private void apply(GameEvent.BoardsScored event) {
+        int length = this.model.getWordLength();
+        for (int b = 0; b < event.getBoards(); b++) {
+            int pattern = event.getPattern(b);
+            if (pattern == MultiBoardModel.SOLVED) continue;
+            for (int i = 0; i < length; i++) {
+                JLabel tile = this.tiles[b][event.getTurn() * length + i];
+                int state = Scorer.state(pattern, i);
+                tile.setText(String.valueOf((char) ('a' + WordIndex.letterAt(event.getGuess(), i))));
+                tile.setBackground(COLOURS[state]);
+                tile.setForeground(state == Model.WRONG ? Color.white : Color.black);
+            }
+            if (event.isSolved(b)) this.titles[b].setText((b + 1) + " - solved in " + (event.getTurn() + 1));
+        }
+    }
+
+    private void reset() {
+        for (int b = 0; b < this.tiles.length; b++) {
+            for (JLabel tile : this.tiles[b]) {
+                tile.setText(null);
+                tile.setBackground(Color.lightGray);
+            }
+            this.titles[b].setText(String.valueOf(b + 1));
+        }
+        this.status.setText(" ");
+    }
+}
@@ -0,0 +1,153 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Lexicon whose words and hash index live outside the Java heap, for word lists too large to hold as arrays.
+ * Words are stored in a direct ByteBuffer, four bytes each up to WordIndex.MAX_LENGTH letters and eight bytes
+ * beyond. The open-addressing table is a second direct buffer of word positions, so the heap cost of a
+ * lexicon stays constant however many words it holds. Filled by Dictionaries.stream and read-only afterwards.
+ */
+public class OffHeapLexicon implements Lexicon {
+    // Constants
+    private static final int INITIAL_CAPACITY = 1024;
+    // Attributes
+    private final int length; // Letters per word
+    private final int width; // Bytes per stored word
+    private ByteBuffer words; // Packed words, answers first
+    private ByteBuffer table; // Position + 1 of the word in each slot, 0 where unused
+    private int capacity; // Words that fit in words
+    private int shift; // Shift used to reduce the hash to a table slot
+    private int size;
+    private int answerCount;
+
+    OffHeapLexicon(int length) {
+        this.length = length;
+        this.width = length <= WordIndex.MAX_LENGTH ? Integer.BYTES : Long.BYTES;
+        this.capacity = INITIAL_CAPACITY;
+        this.words = ByteBuffer.allocateDirect(this.capacity * this.width).order(ByteOrder.nativeOrder());
+        rehash(this.capacity * 2);
+    }
+
+    /**
+     * Appends word unless it is already present
+     * @pre. word is packed with length() letters
+     * @post. Returns false for a duplicate
+     */
+    boolean add(long word) {
+        int slot = slot(word);
+        int entry;
+        while ((entry = this.table.getInt(slot * Integer.BYTES)) != 0) {
+            if (packed(entry - 1) == word) return false;
+            slot = (slot + 1) & (tableSlots() - 1);
+        }
+        if (this.size == this.capacity) grow();
+        if (this.width == Integer.BYTES) this.words.putInt(this.size * Integer.BYTES, (int) word);
+        else this.words.putLong(this.size * Long.BYTES, word);
+        this.size++;
+        if (this.size * 2 > tableSlots()) rehash(tableSlots() * 2);
+        else this.table.putInt(slot * Integer.BYTES, this.size);
+        return true;
+    }
+
+    /**
+     * Marks every word added so far as an answer
+     * @pre. Only answers have been added
+     * @post. answerCount() == size()
+     */
+    void endAnswers() {
+        this.answerCount = this.size;
+    }
+
+    private void grow() {
+        this.capacity *= 2;
+        ByteBuffer bigger = ByteBuffer.allocateDirect(this.capacity * this.width).order(ByteOrder.nativeOrder());
+        this.words.clear().limit(this.size * this.width);
+        bigger.put(this.words).clear();
+        this.words = bigger;
+    }
+
+    private void rehash(int slots) {
+        this.table = ByteBuffer.allocateDirect(slots * Integer.BYTES).order(ByteOrder.nativeOrder());
+        this.shift = 64 - Integer.numberOfTrailingZeros(slots);
+        for (int i = 0; i < this.size; i++) {
+            int slot = slot(packed(i));
+            while (this.table.getInt(slot * Integer.BYTES) != 0) slot = (slot + 1) & (slots - 1);
+            this.table.putInt(slot * Integer.BYTES, i + 1);
+        }
+    }
+
+    private int tableSlots() {
+        return this.table.capacity() / Integer.BYTES;
+    }
+
+    private int slot(long word) {
+        return (int) ((word * 0x9E3779B97F4A7C15L) >>> this.shift);
+    }
+
+    /**
+     * Returns the position of a packed word, or -1 if it is absent
+     * @pre. None
+     * @post. None
+     */
+    public int indexOf(long word) {
+        if (word < 0) return -1;
+        int slot = slot(word);
+        int entry;
+        while ((entry = this.table.getInt(slot * Integer.BYTES)) != 0) {
+            if (packed(entry - 1) == word) return entry - 1;
+            slot = (slot + 1) & (tableSlots() - 1);
+        }
+        return -1;
+    }
+
+    @Override
+    public int indexOf(CharSequence word) {
+        return indexOf(LongWordIndex.pack(word, this.length));
+    }
+
+    @Override
+    public long packed(int i) {
+        return this.width == Integer.BYTES ? this.words.getInt(i * Integer.BYTES) : this.words.getLong(i * Long.BYTES);
+    }
+
+    @Override
+    public List<String> asList(int from, int to) {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int i) {
+                Objects.checkIndex(i, to - from);
+                return WordIndex.unpack(packed(from + i), length);
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof CharSequence)) return false;
+                int i = indexOf((CharSequence) o);
+                return i >= from && i < to;
+            }
+        };
+    }
+
+    /**
+     * Bytes held outside the heap by this lexicon
+     */
+    public long offHeapBytes() {
+        return (long) this.words.capacity() + this.table.capacity();
+    }
+
+    // Getters
+    @Override
+    public int length() { return length; }
+    @Override
+    public int size() { return size; }
+    @Override
+    public int answerCount() { return answerCount; }
+}
@@ -0,0 +1,84 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call count, error count and latency histogram of one operation, registered with JMX by Metrics.
+ * Callers read System.nanoTime() before the operation and pass it to record() afterwards. Operations that
+ * take nanoseconds are sampled instead: every call goes through sample(), which counts it, and only the
+ * calls it picks are timed, so the histogram holds a random subset of the calls getCount() reports.
+ */
+public class OperationStats implements OperationStatsMBean {
+    private final String name;
+    private final int sampleMask; // One call in sampleMask + 1 is timed, all of them when 0
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder calls = new LongAdder(); // Every call of a sampled operation, timed or not
+    private final LongAdder errors = new LongAdder();
+    private volatile long since = System.nanoTime(); // Start of the throughput window
+
+    OperationStats(String name, int sampleRate) {
+        assert Integer.bitCount(sampleRate) == 1;
+        this.name = name;
+        this.sampleMask = sampleRate - 1;
+    }
+
+    /**
+     * Counts a call of a sampled operation and decides whether to time it
+     * @pre. None
+     * @post. Returns true for about one call in the sample rate, always false with metrics off
+     */
+    public boolean sample() {
+        if (!Metrics.ENABLED) return false;
+        this.calls.increment();
+        return (ThreadLocalRandom.current().nextInt() & this.sampleMask) == 0;
+    }
+
+    /**
+     * Records a call that started at start
+     * @pre. start was read from System.nanoTime()
+     * @post. getCount() has increased by one
+     */
+    public void record(long start) {
+        if (Metrics.ENABLED) this.latency.record(System.nanoTime() - start);
+    }
+
+    public void recordError() {
+        this.errors.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public long getCount() { return sampleMask == 0 ? latency.getCount() : calls.sum(); }
+    @Override
+    public long getErrors() { return errors.sum(); }
+    @Override
+    public double getMeanNanos() { return latency.getMean(); }
+    @Override
+    public long getP50Nanos() { return latency.percentile(0.5); }
+    @Override
+    public long getP99Nanos() { return latency.percentile(0.99); }
+    @Override
+    public long getP999Nanos() { return latency.percentile(0.999); }
+    @Override
+    public long getMaxNanos() { return latency.getMax(); }
+
+    @Override
+    public double getThroughputPerSecond() {
+        long elapsed = System.nanoTime() - this.since;
+        return elapsed <= 0 ? 0 : getCount() * 1e9 / elapsed;
+    }
+
+    @Override
+    public void reset() {
+        this.latency.reset();
+        this.calls.reset();
+        this.errors.reset();
+        this.since = System.nanoTime();
+    }
+}
@@ -0,0 +1,23 @@
+/**
+ * JMX view of one timed operation. Durations are in nanoseconds.
+ */
+public interface OperationStatsMBean {
+
+    long getCount();
+
+    long getErrors();
+
+    double getMeanNanos();
+
+    long getP50Nanos();
+
+    long getP99Nanos();
+
+    long getP999Nanos();
+
+    long getMaxNanos();
+
+    double getThroughputPerSecond();
+
+    void reset();
+}
@@ -0,0 +1,79 @@
+import java.util.Arrays;
+
+/**
+ * Groups the candidates of a CandidateSet by the pattern they give against one guess, using a counting sort
+ * over primitive arrays: one pass scores each candidate and counts the patterns, a prefix sum turns the
+ * counts into bucket offsets, and a second pass places the candidates. Buffers are reused between calls,
+ * so splitting allocates nothing.
+ */
+public class Partition {
+    private final int[] counts; // Candidates per pattern
+    private final int[] starts; // Offset of each pattern's bucket in members, plus one past the end
+    private final int[] codes; // Pattern of each candidate, in candidate order
+    private final int[] members; // Candidates grouped by pattern, ascending within a bucket
+    private int size; // Candidates in the last split
+
+    public Partition(int answers, int patterns) {
+        this.counts = new int[patterns];
+        this.starts = new int[patterns + 1];
+        this.codes = new int[answers];
+        this.members = new int[answers];
+    }
+
+    /**
+     * Buckets every candidate by its pattern against guess
+     * @pre. guess is packed as in lexicon and candidates covers lexicon.answerCount() answers
+     * @post. size(p) is the number of candidates that score p against guess
+     */
+    public void split(CandidateSet candidates, Lexicon lexicon, long guess) {
+        int length = lexicon.length();
+        boolean five = length == WordIndex.WORD_LENGTH;
+        Arrays.fill(this.counts, 0);
+        int n = 0;
+        for (int a = candidates.next(0); a >= 0; a = candidates.next(a + 1)) {
+            int p = five ? Scorer.score((int) guess, (int) lexicon.packed(a)) : Scorer.score(guess, lexicon.packed(a), length);
+            this.codes[n++] = p;
+            this.counts[p]++;
+        }
+        this.size = n;
+        int offset = 0;
+        for (int p = 0; p < this.counts.length; p++) {
+            this.starts[p] = offset;
+            offset += this.counts[p];
+        }
+        this.starts[this.counts.length] = offset;
+        int[] next = this.counts; // Reused as the fill position of each bucket
+        for (int p = 0; p < next.length; p++) next[p] = this.starts[p];
+        int i = 0;
+        for (int a = candidates.next(0); a >= 0; a = candidates.next(a + 1)) this.members[next[this.codes[i++]]++] = a;
+    }
+
+    /**
+     * Returns the pattern with the most candidates, preferring the lowest pattern on a tie so that a bucket
+     * holding only the guess itself loses to any other bucket of one
+     * @pre. split() has been called on a non-empty set
+     * @post. None
+     */
+    public int largest() {
+        int best = 0;
+        for (int p = 1; p < this.counts.length; p++) if (size(p) > size(best)) best = p;
+        return best;
+    }
+
+    public int size(int pattern) {
+        return this.starts[pattern + 1] - this.starts[pattern];
+    }
+
+    /**
+     * Returns the i-th candidate giving pattern
+     * @pre. 0 <= i < size(pattern)
+     * @post. None
+     */
+    public int member(int pattern, int i) {
+        return this.members[this.starts[pattern] + i];
+    }
+
+    public int size() {
+        return size;
+    }
+}
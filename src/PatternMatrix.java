@@ -0,0 +1,121 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.stream.IntStream;
+
+/**
+ * Precomputed Scorer pattern for every (guess, answer) pair of a WordIndex, one byte per pair.
+ * The matrix is built once in parallel, written to a versioned cache file named after a checksum of the
+ * index, and mapped read-only on later runs so it lives off-heap and is shared by every JVM on the host.
+ */
+public final class PatternMatrix {
+    // Constants
+    public static final String CACHE_DIR_PROPERTY = "wordle.cache";
+    private static final int MAGIC = 0x57504D58; // "WPMX"
+    private static final int VERSION = 1;
+    private static final int HEADER = 32; // magic, version, checksum, rows, cols, padding
+    // Attributes
+    private final ByteBuffer patterns; // Read-only mapping of the cache file, header included
+    private final int rows; // Number of guesses
+    private final int cols; // Number of answers
+
+    private PatternMatrix(ByteBuffer patterns, int rows, int cols) {
+        this.patterns = patterns;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * Maps the matrix for index from the default cache directory, building it first if needed
+     * @pre. None
+     * @post. get(g, a) == Scorer.score(index.word(g), index.answer(a)) for every g and a
+     */
+    public static PatternMatrix load(WordIndex index) throws IOException {
+        return load(index, cacheDir());
+    }
+
+    /**
+     * Directory for files derived from the word lists: the wordle.cache property, else wordle under the temp dir
+     * @pre. None
+     * @post. None
+     */
+    public static Path cacheDir() {
+        String dir = System.getProperty(CACHE_DIR_PROPERTY);
+        return dir != null ? Paths.get(dir) : Paths.get(System.getProperty("java.io.tmpdir"), "wordle");
+    }
+
+    public static PatternMatrix load(WordIndex index, Path dir) throws IOException {
+        long checksum = checksum(index);
+        Path file = dir.resolve(String.format("patterns-v%d-%016x.bin", VERSION, checksum));
+        long size = HEADER + (long) index.size() * index.answerCount();
+        if (!isValid(file, checksum, index, size)) build(index, checksum, file, size);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new PatternMatrix(buffer, index.size(), index.answerCount());
+        }
+    }
+
+    /**
+     * Hash of every packed word and the answer count, identifying the word lists the matrix was built from
+     * @pre. None
+     * @post. None
+     */
+    public static long checksum(WordIndex index) {
+        long hash = 0xCBF29CE484222325L; // FNV-1a
+        hash = (hash ^ index.answerCount()) * 0x100000001B3L;
+        for (int i = 0; i < index.size(); i++) hash = (hash ^ index.word(i)) * 0x100000001B3L;
+        return hash;
+    }
+
+    private static boolean isValid(Path file, long checksum, WordIndex index, long size) throws IOException {
+        if (!Files.isRegularFile(file) || Files.size(file) != size) return false;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) if (channel.read(header) < 0) return false;
+            header.flip();
+            return header.getInt() == MAGIC && header.getInt() == VERSION && header.getLong() == checksum
+                    && header.getInt() == index.size() && header.getInt() == index.answerCount();
+        }
+    }
+
+    private static void build(WordIndex index, long checksum, Path file, long size) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                int cols = index.answerCount();
+                // Each guess writes its own row, so the workers never touch the same bytes
+                IntStream.range(0, index.size()).parallel().forEach(g -> {
+                    int guess = index.word(g);
+                    int base = HEADER + g * cols;
+                    for (int a = 0; a < cols; a++) buffer.put(base + a, (byte) Scorer.score(guess, index.answer(a)));
+                });
+                buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, checksum)
+                        .putInt(16, index.size()).putInt(20, cols);
+                buffer.force();
+            }
+            // Another JVM may be building the same file; either copy is complete and identical
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Returns the pattern of guess g against answer a
+     * @pre. 0 <= g < rows(), 0 <= a < cols()
+     * @post. Returns a value in [0, Scorer.PATTERNS)
+     */
+    public int get(int g, int a) {
+        return this.patterns.get(HEADER + g * this.cols + a) & 0xFF;
+    }
+
+    // Getters
+    public int rows() { return rows; }
+    public int cols() { return cols; }
+}
@@ -0,0 +1,243 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Results of every player across games, kept in a memory-mapped file of fixed-size records.
+ * Records form an open-addressing hash table keyed by player id: a player's slot is claimed once with a
+ * compare-and-set of its key, then its counters are updated under one of STRIPES locks chosen by slot, so games
+ * ending for different players rarely contend. The table never lives on the heap; reopening the file maps it
+ * again and every record is readable at once. The file is created sparse, so unused slots take no disk.
+ *
+ * Record layout (64 bytes, little-endian): player id, played, won, current streak, max streak, total guesses
+ * of the games won, then the number of games won in 1 to 7 guesses and in 8 or more.
+ */
+public class PlayerStats implements Closeable {
+    // Constants
+    public static final int DISTRIBUTION = 8; // Buckets of the guess distribution, the last one open-ended
+    private static final int MAGIC = 0x57505354; // "WPST"
+    private static final int VERSION = 1;
+    private static final int HEADER = 64; // magic, version, capacity, players
+    private static final int RECORD = 64;
+    private static final int KEY = 0, PLAYED = 8, WON = 12, STREAK = 16, MAX_STREAK = 20, GUESSES = 24, DIST = 32;
+    private static final int SEGMENT_SHIFT = 20; // Records per mapping, 64MB
+    private static final int STRIPES = 256;
+    private static final int MAX_CAPACITY = 1 << 28; // 16GB of records
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    // Attributes
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] segments;
+    private final int capacity; // Slots, a power of two
+    private final Object[] stripes = new Object[STRIPES];
+
+    private PlayerStats(FileChannel channel, MappedByteBuffer header, int capacity) throws IOException {
+        this.channel = channel;
+        this.header = header;
+        this.capacity = capacity;
+        int perSegment = 1 << SEGMENT_SHIFT;
+        this.segments = new MappedByteBuffer[(capacity + perSegment - 1) / perSegment];
+        for (int s = 0; s < this.segments.length; s++) {
+            long records = Math.min(perSegment, capacity - (long) s * perSegment);
+            this.segments[s] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER + ((long) s << SEGMENT_SHIFT) * RECORD, records * RECORD);
+            this.segments[s].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        for (int i = 0; i < STRIPES; i++) this.stripes[i] = new Object();
+    }
+
+    /**
+     * Opens the store in file, creating it with room for capacity players if it does not exist
+     * @pre. capacity > 0
+     * @post. An existing file keeps its own capacity; throws IOException if it is not a stats file
+     */
+    public static PlayerStats open(Path file, int capacity) throws IOException {
+        if (capacity < 1 || capacity > MAX_CAPACITY) throw new IllegalArgumentException("Capacity " + capacity);
+        boolean exists = Files.isRegularFile(file) && Files.size(file) > 0;
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (exists) {
+                if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) throw new IOException("Not a player stats file");
+                capacity = header.getInt(8);
+                if (channel.size() < HEADER + (long) capacity * RECORD) throw new IOException("Truncated player stats file");
+            } else {
+                int slots = 1;
+                while (slots < capacity) slots <<= 1;
+                capacity = slots;
+                channel.write(ByteBuffer.wrap(new byte[1]), HEADER + (long) capacity * RECORD - 1); // Sparse
+                header.putInt(8, capacity).putInt(12, 0).putInt(4, VERSION).putInt(0, MAGIC);
+            }
+            return new PlayerStats(channel, header, capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Records the end of one game
+     * @pre. player != 0, guesses >= 1
+     * @post. Throws IllegalStateException if the player is new and every slot is taken
+     */
+    public void recordGame(long player, boolean won, int guesses) {
+        if (player == 0) throw new IllegalArgumentException("Player id 0 is reserved");
+        int slot = claim(player);
+        MappedByteBuffer segment = this.segments[slot >>> SEGMENT_SHIFT];
+        int at = (slot & ((1 << SEGMENT_SHIFT) - 1)) * RECORD;
+        synchronized (this.stripes[slot & (STRIPES - 1)]) {
+            segment.putInt(at + PLAYED, segment.getInt(at + PLAYED) + 1);
+            if (won) {
+                int streak = segment.getInt(at + STREAK) + 1;
+                segment.putInt(at + WON, segment.getInt(at + WON) + 1);
+                segment.putInt(at + STREAK, streak);
+                if (streak > segment.getInt(at + MAX_STREAK)) segment.putInt(at + MAX_STREAK, streak);
+                segment.putInt(at + GUESSES, segment.getInt(at + GUESSES) + guesses);
+                int bucket = at + DIST + Math.min(guesses, DISTRIBUTION) * 4 - 4;
+                segment.putInt(bucket, segment.getInt(bucket) + 1);
+            } else segment.putInt(at + STREAK, 0);
+        }
+    }
+
+    private int claim(long player) { // Slot holding player, taking the first free one on its probe path if new
+        int mask = this.capacity - 1;
+        int slot = (int) mix(player) & mask;
+        for (int probe = 0; probe < this.capacity; probe++, slot = (slot + 1) & mask) {
+            MappedByteBuffer segment = this.segments[slot >>> SEGMENT_SHIFT];
+            int at = (slot & ((1 << SEGMENT_SHIFT) - 1)) * RECORD;
+            long key = (long) LONGS.getAcquire(segment, at + KEY);
+            if (key == player) return slot;
+            if (key == 0) {
+                if (LONGS.compareAndSet(segment, at + KEY, 0L, player)) {
+                    INTS.getAndAdd(this.header, 12, 1);
+                    return slot;
+                }
+                if ((long) LONGS.getAcquire(segment, at + KEY) == player) return slot; // Claimed by a racing update
+            }
+        }
+        throw new IllegalStateException("Player stats store is full");
+    }
+
+    private int find(long player) { // Slot holding player, or -1
+        int mask = this.capacity - 1;
+        int slot = (int) mix(player) & mask;
+        for (int probe = 0; probe < this.capacity; probe++, slot = (slot + 1) & mask) {
+            long key = (long) LONGS.getAcquire(this.segments[slot >>> SEGMENT_SHIFT], (slot & ((1 << SEGMENT_SHIFT) - 1)) * RECORD + KEY);
+            if (key == player) return slot;
+            if (key == 0) return -1;
+        }
+        return -1;
+    }
+
+    private static long mix(long x) { // Spreads sequential ids over the table
+        x = (x ^ (x >>> 33)) * 0xff51afd7ed558ccdL;
+        x = (x ^ (x >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return x ^ (x >>> 33);
+    }
+
+    /**
+     * Reads a player's results
+     * @pre. None
+     * @post. Returns null if the player has never finished a game
+     */
+    public Stats get(long player) {
+        int slot = player == 0 ? -1 : find(player);
+        if (slot < 0) return null;
+        MappedByteBuffer segment = this.segments[slot >>> SEGMENT_SHIFT];
+        int at = (slot & ((1 << SEGMENT_SHIFT) - 1)) * RECORD;
+        int[] distribution = new int[DISTRIBUTION];
+        synchronized (this.stripes[slot & (STRIPES - 1)]) {
+            for (int k = 0; k < DISTRIBUTION; k++) distribution[k] = segment.getInt(at + DIST + k * 4);
+            return new Stats(player, segment.getInt(at + PLAYED), segment.getInt(at + WON), segment.getInt(at + STREAK),
+                    segment.getInt(at + MAX_STREAK), segment.getInt(at + GUESSES), distribution);
+        }
+    }
+
+    /**
+     * Listener recording the games of one Model for player
+     * @pre. player != 0
+     * @post. Every GameWon or GameLost the model publishes is recorded
+     */
+    public GameListener listener(long player) {
+        return event -> {
+            if (event instanceof GameEvent.GameWon) recordGame(player, true, event.getTurn() + 1);
+            else if (event instanceof GameEvent.GameLost) recordGame(player, false, event.getTurn() + 1);
+        };
+    }
+
+    public int getPlayerCount() {
+        return (int) INTS.getVolatile(this.header, 12);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Forces every change to disk
+     * @pre. None
+     * @post. None
+     */
+    public void flush() {
+        this.header.force();
+        for (MappedByteBuffer segment : this.segments) segment.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        this.channel.close(); // The mappings stay valid until they are collected
+    }
+
+    /**
+     * One player's results when they were read
+     */
+    public static final class Stats {
+        private final long player;
+        private final int played;
+        private final int won;
+        private final int streak; // Games won in a row up to the last one
+        private final int maxStreak;
+        private final int guesses; // Total guesses of the games won
+        private final int[] distribution; // distribution[k - 1] is the games won in k guesses, the last bucket k or more
+
+        Stats(long player, int played, int won, int streak, int maxStreak, int guesses, int[] distribution) {
+            this.player = player;
+            this.played = played;
+            this.won = won;
+            this.streak = streak;
+            this.maxStreak = maxStreak;
+            this.guesses = guesses;
+            this.distribution = distribution;
+        }
+
+        public double getWinRate() {
+            return this.played == 0 ? 0 : (double) this.won / this.played;
+        }
+
+        public double getAverageGuesses() { // Over the games won
+            return this.won == 0 ? 0 : (double) this.guesses / this.won;
+        }
+
+        public int getDistribution(int guesses) {
+            return this.distribution[Math.min(guesses, DISTRIBUTION) - 1];
+        }
+
+        // Getters
+        public long getPlayer() { return player; }
+        public int getPlayed() { return played; }
+        public int getWon() { return won; }
+        public int getStreak() { return streak; }
+        public int getMaxStreak() { return maxStreak; }
+        public int getTotalGuesses() { return guesses; }
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * Allocation-free feedback kernel.
+ * A pattern is a base-3 number with one digit per position (position 0 is the least significant digit):
+ * 0 = wrong, 1 = partial, 2 = correct. Adding one to a digit gives the matching Model state constant.
+ */
+public final class Scorer {
+    // Constants
+    public static final int PATTERNS = 243; // 3^5
+    public static final int ALL_WRONG = 0;
+    public static final int ALL_CORRECT = PATTERNS - 1;
+    public static final int DIGIT_WRONG = 0;
+    public static final int DIGIT_PARTIAL = 1;
+    public static final int DIGIT_CORRECT = 2;
+    private static final int[] POW3 = {1, 3, 9, 27, 81, 243, 729, 2187, 6561, 19683, 59049, 177147};
+    private static final String[] INDICATORS = new String[PATTERNS];
+
+    static {
+        char[] chars = new char[WordIndex.WORD_LENGTH];
+        for (int p = 0; p < PATTERNS; p++) {
+            for (int i = 0; i < WordIndex.WORD_LENGTH; i++) {
+                int d = digit(p, i);
+                chars[i] = d == DIGIT_CORRECT ? 'o' : d == DIGIT_PARTIAL ? '~' : 'x';
+            }
+            INDICATORS[p] = new String(chars);
+        }
+    }
+
+    private Scorer() {}
+
+    /**
+     * Scores a packed guess against a packed answer
+     * @pre. guess and answer are packed five-letter words
+     * @post. Returns a pattern in [0, PATTERNS); a repeated guess letter is only marked partial
+     *        as many times as it appears in the answer outside the correct positions
+     */
+    public static int score(int guess, int answer) {
+        int same = ~(guess ^ answer);
+        int green = 0; // Bit i set when position i is correct
+        for (int i = 0; i < 5; i++)
+            if (((same >>> (i * 5)) & 31) == 31) green |= 1 << i;
+        if (green == 31) return ALL_CORRECT;
+
+        // Count the answer letters outside correct positions in 4-bit lanes: letters a-m in low, n-z in high
+        long low = 0, high = 0;
+        for (int j = 0; j < 5; j++) {
+            if ((green & (1 << j)) != 0) continue;
+            int a = (answer >>> (j * 5)) & 31;
+            if (a < 13) low += 1L << (a << 2);
+            else high += 1L << ((a - 13) << 2);
+        }
+        int pattern = 0;
+        for (int i = 0; i < 5; i++) {
+            if ((green & (1 << i)) != 0) {
+                pattern += DIGIT_CORRECT * POW3[i];
+                continue;
+            }
+            int g = (guess >>> (i * 5)) & 31;
+            if (g < 13) {
+                long lane = 1L << (g << 2);
+                if ((low & (15L * lane)) != 0) { // Take one unmatched occurrence of g
+                    low -= lane;
+                    pattern += DIGIT_PARTIAL * POW3[i];
+                }
+            } else {
+                long lane = 1L << ((g - 13) << 2);
+                if ((high & (15L * lane)) != 0) {
+                    high -= lane;
+                    pattern += DIGIT_PARTIAL * POW3[i];
+                }
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * Scores a packed guess against a packed answer of any length up to LongWordIndex.MAX_LENGTH letters.
+     * Same rules as score(int, int), which stays the fast path for five-letter words.
+     * @pre. guess and answer are packed words of length letters
+     * @post. Returns a pattern in [0, patterns(length))
+     */
+    public static int score(long guess, long answer, int length) {
+        long same = ~(guess ^ answer);
+        int green = 0;
+        for (int i = 0; i < length; i++)
+            if (((same >>> (i * 5)) & 31) == 31) green |= 1 << i;
+        if (green == (1 << length) - 1) return allCorrect(length);
+
+        long low = 0, high = 0; // 4-bit lanes as in score(int, int), a word has at most 11 of any letter
+        for (int j = 0; j < length; j++) {
+            if ((green & (1 << j)) != 0) continue;
+            int a = (int) (answer >>> (j * 5)) & 31;
+            if (a < 13) low += 1L << (a << 2);
+            else high += 1L << ((a - 13) << 2);
+        }
+        int pattern = 0;
+        for (int i = 0; i < length; i++) {
+            if ((green & (1 << i)) != 0) {
+                pattern += DIGIT_CORRECT * POW3[i];
+                continue;
+            }
+            int g = (int) (guess >>> (i * 5)) & 31;
+            if (g < 13) {
+                long lane = 1L << (g << 2);
+                if ((low & (15L * lane)) != 0) {
+                    low -= lane;
+                    pattern += DIGIT_PARTIAL * POW3[i];
+                }
+            } else {
+                long lane = 1L << ((g - 13) << 2);
+                if ((high & (15L * lane)) != 0) {
+                    high -= lane;
+                    pattern += DIGIT_PARTIAL * POW3[i];
+                }
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * Scores one guess against several answers in a single pass, without allocating
+     * @pre. answers are packed words of length letters, patterns.length >= answers.length
+     * @post. patterns[b] is the pattern against answers[b] for each board b whose bit is set in boards;
+     *        other elements are left alone
+     */
+    public static void scoreAll(long guess, long[] answers, int length, int boards, int[] patterns) {
+        if (length == WordIndex.WORD_LENGTH) { // Five-letter words take the int kernel
+            for (int b = boards; b != 0; b &= b - 1) {
+                int i = Integer.numberOfTrailingZeros(b);
+                patterns[i] = score((int) guess, (int) answers[i]);
+            }
+            return;
+        }
+        for (int b = boards; b != 0; b &= b - 1) {
+            int i = Integer.numberOfTrailingZeros(b);
+            patterns[i] = score(guess, answers[i], length);
+        }
+    }
+
+    /**
+     * Number of distinct patterns for words of length letters
+     * @pre. 1 <= length <= LongWordIndex.MAX_LENGTH
+     * @post. None
+     */
+    public static int patterns(int length) {
+        return POW3[length];
+    }
+
+    public static int allCorrect(int length) {
+        return POW3[length] - 1;
+    }
+
+    /**
+     * Returns the digit for position i of a pattern
+     * @pre. 0 <= i < LongWordIndex.MAX_LENGTH
+     * @post. Returns DIGIT_WRONG, DIGIT_PARTIAL or DIGIT_CORRECT
+     */
+    public static int digit(int pattern, int i) {
+        return (pattern / POW3[i]) % 3;
+    }
+
+    /**
+     * Returns the Model letter state (WRONG, PARTIAL or CORRECT) for position i of a pattern
+     * @pre. 0 <= i < LongWordIndex.MAX_LENGTH
+     * @post. None
+     */
+    public static int state(int pattern, int i) {
+        return digit(pattern, i) + Model.WRONG;
+    }
+
+    /**
+     * Returns the indicator string for a pattern: "o" correct, "~" partial, "x" wrong
+     * @pre. 0 <= pattern < PATTERNS
+     * @post. Returned String is shared and has length 5
+     */
+    public static String indicators(int pattern) {
+        return INDICATORS[pattern];
+    }
+
+    /**
+     * Returns the indicator string for a pattern over words of length letters
+     * @pre. 0 <= pattern < patterns(length)
+     * @post. Returned String has length letters
+     */
+    public static String indicators(int pattern, int length) {
+        if (length == WordIndex.WORD_LENGTH) return INDICATORS[pattern];
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            int d = digit(pattern, i);
+            chars[i] = d == DIGIT_CORRECT ? 'o' : d == DIGIT_PARTIAL ? '~' : 'x';
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,184 @@
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Headless engine that plays many games against a Strategy across all cores.
+ * Games never touch Model: each fork-join leaf keeps its own guess and pattern arrays, so nothing is shared
+ * between threads except the immutable WordIndex and the strategy.
+ */
+public class Simulator {
+    // Constants
+    private static final int LEAF_SIZE = 32; // Games played by one fork-join leaf
+    // Attributes
+    private final WordIndex index;
+    private final int numGuesses;
+    private final ForkJoinPool pool;
+
+    public Simulator(WordIndex index) {
+        this(index, Model.NUMGUESSES, ForkJoinPool.commonPool());
+    }
+
+    public Simulator(WordIndex index, int numGuesses, ForkJoinPool pool) {
+        this.index = index;
+        this.numGuesses = numGuesses;
+        this.pool = pool;
+    }
+
+    /**
+     * Plays every answer in the answer list against strategy
+     * @pre. None
+     * @post. Returned result covers index.answerCount() games
+     */
+    public Result run(Strategy strategy) {
+        int[] answers = new int[this.index.answerCount()];
+        for (int a = 0; a < answers.length; a++) answers[a] = a;
+        return run(strategy, answers);
+    }
+
+    /**
+     * Plays the given answers against strategy
+     * @pre. Every element of answers is an answer position in the index
+     * @post. Returned result covers answers.length games
+     */
+    public Result run(Strategy strategy, int[] answers) {
+        return this.pool.invoke(new Games(strategy, answers, 0, answers.length));
+    }
+
+    /**
+     * Picks n distinct answer positions at random
+     * @pre. 0 <= n <= answerCount
+     * @post. None
+     */
+    public static int[] sample(int answerCount, int n, long seed) {
+        int[] answers = new int[answerCount];
+        for (int a = 0; a < answerCount; a++) answers[a] = a;
+        Random rand = new Random(seed);
+        for (int i = 0; i < n; i++) { // Partial Fisher-Yates shuffle
+            int j = i + rand.nextInt(answerCount - i);
+            int t = answers[i];
+            answers[i] = answers[j];
+            answers[j] = t;
+        }
+        return Arrays.copyOf(answers, n);
+    }
+
+    /**
+     * Plays one game
+     * @pre. guesses and patterns have at least numGuesses elements
+     * @post. Returns the number of guesses needed to win, or 0 if the game was lost
+     */
+    private int play(Strategy strategy, int answer, int[] guesses, int[] patterns) {
+        for (int turn = 0; turn < this.numGuesses; turn++) {
+            int guess = strategy.nextGuess(guesses, patterns, turn);
+            int pattern = Scorer.score(this.index.word(guess), answer);
+            if (pattern == Scorer.ALL_CORRECT) return turn + 1;
+            guesses[turn] = guess;
+            patterns[turn] = pattern;
+        }
+        return 0;
+    }
+
+    private class Games extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+        private final Strategy strategy;
+        private final int[] answers;
+        private final int from, to;
+
+        Games(Strategy strategy, int[] answers, int from, int to) {
+            this.strategy = strategy;
+            this.answers = answers;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (this.to - this.from > LEAF_SIZE) {
+                int mid = (this.from + this.to) >>> 1;
+                Games left = new Games(this.strategy, this.answers, this.from, mid);
+                left.fork();
+                Result right = new Games(this.strategy, this.answers, mid, this.to).compute();
+                return left.join().merge(right);
+            }
+            Result result = new Result(numGuesses);
+            int[] guesses = new int[numGuesses];
+            int[] patterns = new int[numGuesses];
+            for (int i = this.from; i < this.to; i++)
+                result.record(play(this.strategy, index.answer(this.answers[i]), guesses, patterns));
+            return result;
+        }
+    }
+
+    /**
+     * Aggregate outcome of a batch of games
+     */
+    public static class Result {
+        private final int[] histogram; // histogram[k - 1] is the number of games won in k guesses
+        private int games;
+        private int failures;
+
+        Result(int numGuesses) {
+            this.histogram = new int[numGuesses];
+        }
+
+        void record(int guesses) {
+            this.games++;
+            if (guesses == 0) this.failures++;
+            else this.histogram[guesses - 1]++;
+        }
+
+        Result merge(Result other) {
+            this.games += other.games;
+            this.failures += other.failures;
+            for (int k = 0; k < this.histogram.length; k++) this.histogram[k] += other.histogram[k];
+            return this;
+        }
+
+        /**
+         * Mean number of guesses over the games that were won
+         * @pre. None
+         * @post. Returns 0 if no game was won
+         */
+        public double getAverageGuesses() {
+            long total = 0;
+            for (int k = 0; k < this.histogram.length; k++) total += (long) (k + 1) * this.histogram[k];
+            int wins = this.games - this.failures;
+            return wins == 0 ? 0 : (double) total / wins;
+        }
+
+        public double getFailureRate() {
+            return this.games == 0 ? 0 : (double) this.failures / this.games;
+        }
+
+        public int getGames() { return games; }
+        public int getFailures() { return failures; }
+        public int[] getHistogram() { return histogram.clone(); }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("games=%d average=%.4f failures=%d (%.2f%%)%n",
+                    this.games, getAverageGuesses(), this.failures, 100 * getFailureRate()));
+            for (int k = 0; k < this.histogram.length; k++)
+                sb.append(String.format("%d: %d%n", k + 1, this.histogram[k]));
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Runs the baseline strategy over every answer, or over a random sample of args[0] answers
+     */
+    public static void main(String[] args) throws IOException {
+        WordIndex index = WordIndex.shared();
+        Simulator simulator = new Simulator(index);
+        int[] answers = args.length > 0
+                ? sample(index.answerCount(), Integer.parseInt(args[0]), System.nanoTime())
+                : sample(index.answerCount(), index.answerCount(), 0);
+        long start = System.nanoTime();
+        Result result = simulator.run(new CandidateStrategy(index, "raise"), answers);
+        System.out.print(result);
+        System.out.printf("elapsed=%dms%n", (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,211 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Chooses the guess that best splits the answers still consistent with the feedback so far.
+ * Every allowed guess is scored against the remaining candidates in parallel, by expected information
+ * (entropy) or by expected number of remaining candidates. Guesses that could themselves be the answer are
+ * scored first and win ties, so a search cut short by the latency budget still returns a sensible guess.
+ */
+public class Solver implements Strategy {
+    // Constants
+    public static final long DEFAULT_BUDGET_NANOS = 50_000_000L; // 50ms per hint
+    private static final int CHUNK = 256; // Guesses scored by one parallel task
+
+    public enum Metric { ENTROPY, EXPECTED_REMAINING }
+
+    // Attributes
+    private final WordIndex index;
+    private final PatternMatrix matrix; // Precomputed patterns, or null to score with Scorer
+    private final long budgetNanos; // Time allowed for one search after the first turn
+    private final double[] cost; // cost[c] is the penalty of a bucket holding c candidates
+    private volatile int opener = -1; // Best first guess, found once and reused
+    private volatile DecisionTree tree; // Precomputed plan consulted before searching, null if none
+
+    public Solver(WordIndex index, PatternMatrix matrix) {
+        this(index, matrix, Metric.ENTROPY, DEFAULT_BUDGET_NANOS);
+    }
+
+    public Solver(WordIndex index, PatternMatrix matrix, Metric metric, long budgetNanos) {
+        this.index = index;
+        this.matrix = matrix;
+        this.budgetNanos = budgetNanos;
+        // Maximising entropy minimises sum(c log c); minimising expected remaining minimises sum(c^2)
+        this.cost = new double[index.answerCount() + 1];
+        for (int c = 1; c < this.cost.length; c++)
+            this.cost[c] = metric == Metric.ENTROPY ? c * Math.log(c) : (double) c * c;
+    }
+
+    public void setTree(DecisionTree tree) {
+        this.tree = tree;
+    }
+
+    @Override
+    public int nextGuess(int[] guesses, int[] patterns, int turn) {
+        DecisionTree tree = this.tree;
+        if (tree != null) {
+            int planned = tree.lookup(guesses, patterns, turn);
+            if (planned >= 0) return planned;
+        }
+        int[] packed = new int[turn];
+        for (int t = 0; t < turn; t++) packed[t] = this.index.word(guesses[t]);
+        int best = bestGuess(packed, patterns, turn);
+        return best >= 0 ? best : guesses[turn - 1];
+    }
+
+    /**
+     * Suggests the next guess for a game in progress
+     * @pre. model is using this solver's WordIndex
+     * @post. Returns null if no answer in the answer list fits the feedback so far
+     */
+    public String hint(Model model) {
+        int best = planned(model);
+        if (best >= 0) return WordIndex.unpack(this.index.word(best));
+        if (model.getTurnCount() == 0) best = opener();
+        else { // The model already tracks which answers are left
+            int[] candidates = model.getCandidates().toArray();
+            if (candidates.length <= 2) best = candidates.length == 0 ? -1 : candidates[0];
+            else best = search(candidates, System.nanoTime() + this.budgetNanos);
+        }
+        return best >= 0 ? WordIndex.unpack(this.index.word(best)) : null;
+    }
+
+    /**
+     * Suggests the next guess from a snapshot of a game, so the search can run away from the thread playing it
+     * @pre. state is a game of this solver's WordIndex
+     * @post. Returns null if no answer in the answer list fits the feedback so far
+     */
+    public String hint(GameState state) {
+        int turn = state.getTurns();
+        int[] guesses = new int[turn];
+        int[] positions = new int[turn];
+        int[] patterns = new int[turn];
+        for (int t = 0; t < turn; t++) {
+            guesses[t] = state.getGuess(t);
+            positions[t] = this.index.indexOf(guesses[t]);
+            patterns[t] = state.getPattern(t);
+        }
+        DecisionTree tree = this.tree;
+        int best = tree != null ? tree.lookup(positions, patterns, turn) : -1;
+        if (best < 0) best = bestGuess(guesses, patterns, turn);
+        return best >= 0 ? WordIndex.unpack(this.index.word(best)) : null;
+    }
+
+    private int planned(Model model) { // Tree's guess while the player has followed it, else -1
+        DecisionTree tree = this.tree;
+        if (tree == null) return -1;
+        int turn = model.getTurnCount();
+        int[] guesses = new int[turn];
+        int[] patterns = new int[turn];
+        for (int t = 0; t < turn; t++) {
+            guesses[t] = this.index.indexOf(model.getPackedGuess(t));
+            patterns[t] = model.getPattern(t);
+        }
+        return tree.lookup(guesses, patterns, turn);
+    }
+
+    /**
+     * Finds the best next guess from a game history
+     * @pre. guesses holds turn packed words and patterns their Scorer patterns
+     * @post. Returns a WordIndex position, or -1 if no candidate remains
+     */
+    public int bestGuess(int[] guesses, int[] patterns, int turn) {
+        if (turn == 0) return opener();
+        int[] candidates = candidates(guesses, patterns, turn);
+        if (candidates.length <= 2) return candidates.length == 0 ? -1 : candidates[0];
+        return search(candidates, System.nanoTime() + this.budgetNanos);
+    }
+
+    /**
+     * Returns the answer positions consistent with every recorded pattern
+     * @pre. guesses holds turn packed words and patterns their Scorer patterns
+     * @post. None
+     */
+    public int[] candidates(int[] guesses, int[] patterns, int turn) {
+        int[] rows = new int[turn]; // Matrix row of each guess, or -1 if it must be scored directly
+        for (int t = 0; t < turn; t++) rows[t] = this.matrix != null ? this.index.indexOf(guesses[t]) : -1;
+        int[] candidates = new int[this.index.answerCount()];
+        int n = 0;
+        outer:
+        for (int a = 0; a < candidates.length; a++) {
+            for (int t = 0; t < turn; t++) {
+                int p = rows[t] >= 0 ? this.matrix.get(rows[t], a) : Scorer.score(guesses[t], this.index.answer(a));
+                if (p != patterns[t]) continue outer;
+            }
+            candidates[n++] = a;
+        }
+        return Arrays.copyOf(candidates, n);
+    }
+
+    /**
+     * Finds the best guess for a set of candidates with no time limit
+     * @pre. candidates is a non-empty array of answer positions
+     * @post. Returns a WordIndex position
+     */
+    public int best(int[] candidates) {
+        if (candidates.length <= 2) return candidates[0];
+        return search(candidates, Long.MAX_VALUE);
+    }
+
+    private int opener() {
+        int best = this.opener;
+        if (best < 0) {
+            int[] all = new int[this.index.answerCount()];
+            for (int a = 0; a < all.length; a++) all[a] = a;
+            this.opener = best = search(all, Long.MAX_VALUE);
+        }
+        return best;
+    }
+
+    private int search(int[] candidates, long deadline) {
+        // Candidates are answers, and answers occupy the first guess positions, so they double as guesses
+        ColumnScorer columns = this.matrix == null ? ColumnScorer.of(this.index, candidates) : null;
+        Best best = scoreAll(candidates, candidates, columns, Long.MAX_VALUE);
+        int[] all = new int[this.index.size()];
+        for (int g = 0; g < all.length; g++) all[g] = g;
+        Best other = scoreAll(all, candidates, columns, deadline);
+        return other != null && other.cost < best.cost ? other.guess : best.guess;
+    }
+
+    private Best scoreAll(int[] guesses, int[] candidates, ColumnScorer columns, long deadline) {
+        int chunks = (guesses.length + CHUNK - 1) / CHUNK;
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> System.nanoTime() > deadline ? null
+                        : scoreChunk(guesses, c * CHUNK, Math.min(guesses.length, (c + 1) * CHUNK), candidates, columns))
+                .reduce(null, Best::min);
+    }
+
+    private Best scoreChunk(int[] guesses, int from, int to, int[] candidates, ColumnScorer columns) {
+        int[] counts = new int[Scorer.PATTERNS];
+        Best best = null;
+        for (int i = from; i < to; i++) {
+            int g = guesses[i];
+            if (columns != null) columns.histogram(this.index.word(g), counts); // No matrix, score eight answers at a time
+            else {
+                Arrays.fill(counts, 0);
+                for (int a : candidates) counts[this.matrix.get(g, a)]++;
+            }
+            double cost = 0;
+            for (int c : counts) cost += this.cost[c];
+            if (counts[Scorer.ALL_CORRECT] == 0) cost += 0.5; // Prefer guesses that could win outright
+            best = Best.min(best, new Best(g, cost));
+        }
+        return best;
+    }
+
+    private static final class Best {
+        final int guess;
+        final double cost;
+
+        Best(int guess, double cost) {
+            this.guess = guess;
+            this.cost = cost;
+        }
+
+        static Best min(Best a, Best b) {
+            if (a == null) return b;
+            if (b == null) return a;
+            return b.cost < a.cost || (b.cost == a.cost && b.guess < a.guess) ? b : a;
+        }
+    }
+}
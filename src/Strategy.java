@@ -0,0 +1,12 @@
+/**
+ * A guessing strategy for headless play.
+ * Implementations must be safe to call from several threads at once, as the Simulator plays many games in parallel.
+ */
+public interface Strategy {
+    /**
+     * Chooses the next guess from the history of the current game
+     * @pre. guesses and patterns hold turn entries, guesses as WordIndex positions and patterns as Scorer patterns
+     * @post. Returns a position in the WordIndex the strategy was built for
+     */
+    int nextGuess(int[] guesses, int[] patterns, int turn);
+}
@@ -3,30 +3,36 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
 
-public class View implements Observer {
+public class View implements GameListener {
     private final Model model;
     private final Controller controller;
     private JFrame frame;
-    private List<JButton> keyboard;
+    private static final String[] LETTERS = "abcdefghijklmnopqrstuvwxyz".split("");
+    private final Color[] colours; // Indexed by letter state
+    private JButton[] keyboard; // Indexed by Letter.getCode()
     private List<List<JLabel>> guesses;
     private JLabel errorMessage;
     private JLabel answerMessage;
+    private JLabel hintMessage;
+    private JLabel candidatesMessage;
     private JButton newGameBtn;
-    private int head;
+    private JButton hintBtn;
+    private int hintTurn; // Bumped whenever the board moves on, so a hint finishing late is dropped
 
 
     public View(Model model, Controller controller) {
         this.model = model;
         this.controller = controller;
-        List<Color> colours = controller.getColours();
-        model.addObserver(this);
+        this.colours = controller.getColours().toArray(new Color[0]);
         this.frame = initialise();
+        model.addListener(this);
         this.controller.initialise(this);
     }
 
     public JFrame initialise() { // General function to initialise the view for a new game
-        this.head = 0;
         JFrame frame = new JFrame("Wordle Game");
         try{
             UIManager.setLookAndFeel(UIManager.getCrossPlatformLookAndFeelClassName());
@@ -36,7 +42,7 @@ public class View implements Observer {
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         initLabels(frame);
         initButtons(frame);
-        frame.setSize(500, controller.getNumGuesses()*50 + 250);
+        frame.setSize(500 + sideOffset(), controller.getNumGuesses()*50 + 250);
         frame.setLayout(null); //using no layout managers
         frame.setVisible(true);
         return frame;
@@ -49,7 +55,7 @@ public class View implements Observer {
             List<JLabel> row = new ArrayList<>();
             this.guesses.add(row);
             int x = 70;
-            for (int j = 0; j < 5; j++) {
+            for (int j = 0; j < controller.getWordLength(); j++) {
                 JLabel label = new JLabel();
                 label.setBounds(x,y,50,50);
                 label.setOpaque(true);
@@ -67,17 +73,31 @@ public class View implements Observer {
         this.answerMessage = new JLabel("<html>"+ "The answer was " + controller.getAnswerAsString() +"</html>");
         this.errorMessage.setForeground(Color.red);
         this.answerMessage.setForeground(Color.red);
-        this.errorMessage.setBounds(420, 10, 70, 200);
-        this.answerMessage.setBounds(420, 100, 70, 200);
+        this.errorMessage.setBounds(420 + sideOffset(), 10, 70, 200);
+        this.answerMessage.setBounds(420 + sideOffset(), 100, 70, 200);
         this.errorMessage.setVisible(false);
         this.answerMessage.setVisible(false);
         frame.add(this.errorMessage);
         frame.add(this.answerMessage);
+
+        this.hintMessage = new JLabel();
+        this.hintMessage.setHorizontalAlignment(SwingConstants.CENTER);
+        this.hintMessage.setBounds(385 + sideOffset(), controller.getNumGuesses()*50 - 60, 100, 40);
+        frame.add(this.hintMessage);
+
+        this.candidatesMessage = new JLabel();
+        this.candidatesMessage.setHorizontalAlignment(SwingConstants.CENTER);
+        this.candidatesMessage.setBounds(385 + sideOffset(), controller.getNumGuesses()*50 - 100, 100, 40);
+        frame.add(this.candidatesMessage);
+    }
+
+    private int sideOffset() { // Side panel moves right by one tile for each letter past five
+        return (controller.getWordLength() - WordIndex.WORD_LENGTH) * 60;
     }
 
     private void initButtons(JFrame frame) { // Loads all the buttons
         // Load in the keyboard
-        this.keyboard = new ArrayList<>();
+        this.keyboard = new JButton[LETTERS.length];
         int keyboardHeightConst = controller.getNumGuesses()*50 + 100;
         int x = 20;
         int y = keyboardHeightConst;
@@ -89,8 +109,8 @@ public class View implements Observer {
             btn.addActionListener((ActionEvent e) -> {keyboardBtnHandler(btn.getText());});
             btn.setFont(new Font("Arial", Font.PLAIN, 10));
             btn.setBackground(Color.lightGray);
-            this.keyboard.add(btn);
-            frame.add(this.keyboard.get(i));
+            this.keyboard[qwerty[i].charAt(0) - 'a'] = btn;
+            frame.add(btn);
             if (qwerty[i].equals("p") || qwerty[i].equals("l")) {
                 if (qwerty[i].equals("p")) x = 35;
                 else x = 60;
@@ -100,8 +120,8 @@ public class View implements Observer {
         // Load in enter and delete buttons
         JButton enter = new JButton("ENT");
         JButton del = new JButton("DEL");
-        enter.setBounds(425, keyboardHeightConst+ 65, 60, 40);
-        del.setBounds(425, keyboardHeightConst+ 15, 60, 40);
+        enter.setBounds(425 + sideOffset(), keyboardHeightConst+ 65, 60, 40);
+        del.setBounds(425 + sideOffset(), keyboardHeightConst+ 15, 60, 40);
         enter.setFont(new Font("Arial", Font.BOLD, 10));
         del.setFont(new Font("Arial", Font.BOLD, 10));
         enter.addActionListener((ActionEvent e) -> {enterHandler();});
@@ -109,28 +129,20 @@ public class View implements Observer {
         frame.add(enter);
         frame.add(del);
 
+        // Load in hint button
+        this.hintBtn = new JButton("Hint");
+        this.hintBtn.setBounds(385 + sideOffset(), keyboardHeightConst-120, 100, 40);
+        this.hintBtn.addActionListener((ActionEvent e) -> {hintHandler();});
+        frame.add(this.hintBtn);
+
         // Load in new game button
         this.newGameBtn = new JButton("New Game");
-        this.newGameBtn.setBounds(385, keyboardHeightConst-70, 100, 40);
+        this.newGameBtn.setBounds(385 + sideOffset(), keyboardHeightConst-70, 100, 40);
         this.newGameBtn.addActionListener((ActionEvent e) -> {newGameHandler();});
         this.newGameBtn.setVisible(false);
         frame.add(this.newGameBtn);
     }
 
-    public void addLetter(Letter letter) { // Letter pressed by user is shown in corresponding label
-        JLabel label = this.guesses.get(controller.getTurnCount()).get(head);
-        label.setText(letter.getName());
-        if (head < 5) head++;
-        this.frame.repaint();
-    }
-
-    public void removeLetter() { // Make last updated label blank
-        if (head > 0) head--;
-        JLabel label = this.guesses.get(controller.getTurnCount()).get(head);
-        label.setText(null);
-        this.frame.repaint();
-    }
-
     private void keyboardBtnHandler(String text) { // Event handler for when the letters of the keyboard are pressed
         if (controller.getGameFlag()) controller.submitLetter(text);
     }
@@ -147,9 +159,38 @@ public class View implements Observer {
         if (controller.getGameFlag()) controller.removeLetter();
     }
 
+    private void hintHandler() { // Event handler for when the hint button is pressed, searching off the EDT
+        if (!controller.getGameFlag()) return;
+        Supplier<String> task = controller.getHintTask();
+        int turn = this.hintTurn;
+        this.hintBtn.setEnabled(false);
+        this.hintMessage.setText("Thinking...");
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                return task.get();
+            }
+
+            @Override
+            protected void done() {
+                hintBtn.setEnabled(true);
+                if (turn != hintTurn) return; // A guess or new game cleared the board meanwhile
+                try {
+                    String hint = get();
+                    hintMessage.setText(hint != null ? "Try " + hint : "No words left");
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                    hintMessage.setText(null);
+                }
+            }
+        }.execute();
+    }
+
     private void newGameHandler() {
         controller.newGame();
+    }
 
+    private void reset() { // Clear the board for a new game
         for (List<JLabel> row : this.guesses)
             for (JLabel label : row) {
                 label.setText(null);
@@ -164,36 +205,58 @@ public class View implements Observer {
 
         this.newGameBtn.setVisible(false);
         this.answerMessage.setVisible(false);
+        this.hintTurn++;
+        this.hintMessage.setText(null);
+        this.candidatesMessage.setText(null);
     }
 
     @Override
-    public void update(Observable o, Object arg) {
-        // Update background of labels that have been used
-        List<List<Letter>> submittedGuesses = controller.getSubmittedGuesses();
-        List<Color> colours = controller.getColours();
-        this.head = 0;
-        List<Letter> guess = submittedGuesses.get(controller.getTurnCount()-1);
-        for (int i = 0; i < guess.size(); i++) {
-            JLabel label = this.guesses.get(controller.getTurnCount() - 1).get(i);
-            Color colour = colours.get(guess.get(i).getRoundStates()[i]);
-            label.setBackground(colour);
-            if (guess.get(i).getRoundStates()[i] == Model.WRONG) label.setForeground(Color.white);
+    public void onEvent(GameEvent event) { // Swing components are only touched on the event dispatch thread
+        if (SwingUtilities.isEventDispatchThread()) handle(event);
+        else SwingUtilities.invokeLater(() -> handle(event));
+    }
+
+    private void handle(GameEvent event) {
+        if (event instanceof GameEvent.LetterTyped) typed((GameEvent.LetterTyped) event);
+        else if (event instanceof GameEvent.GuessScored) apply(((GameEvent.GuessScored) event).getDelta());
+        else if (event instanceof GameEvent.GameLost) { // Reveal word if player runs out of turns
+            this.answerMessage.setText("<html>"+ "The answer was " + ((GameEvent.GameLost) event).getAnswer() +"</html>");
+            this.answerMessage.setVisible(true);
+        }
+        else if (event instanceof GameEvent.GameReset) reset();
+    }
+
+    private void typed(GameEvent.LetterTyped event) { // Show or clear the tile, flagging a prefix no word starts with
+        List<JLabel> row = this.guesses.get(event.getTurn());
+        JLabel label = row.get(event.getPosition());
+        label.setText(event.isRemoved() ? null : LETTERS[event.getLetter()]);
+        if (event.isLive()) for (int i = 0; i <= event.getPosition(); i++) row.get(i).setForeground(Color.black);
+        else label.setForeground(Color.red);
+        this.errorMessage.setVisible(!event.isLive());
+    }
+
+    private void apply(GuessDelta delta) { // Only touch the scored row and the keys that changed
+        List<JLabel> row = this.guesses.get(delta.getTurn());
+        for (int i = 0; i < row.size(); i++) {
+            JLabel label = row.get(i);
+            int state = Scorer.state(delta.getPattern(), i);
+            label.setText(LETTERS[WordIndex.letterAt(delta.getGuess(), i)]); // Guesses may not have been typed
+            label.setBackground(this.colours[state]);
+            if (state == Model.WRONG) label.setForeground(Color.white);
         }
 
-        // Update backgrounds of buttons
-        for (JButton btn : this.keyboard) {
-            Letter letter = controller.getLetter(btn.getText());
-            if (letter.getButtonState() != Model.UNASSIGNED) {
-                Color colour = colours.get(letter.getButtonState());
-                btn.setBackground(colour);
-                if (letter.getButtonState() == Model.WRONG) btn.setForeground(Color.white);
-            }
+        for (int keys = delta.getChangedKeys(); keys != 0; keys &= keys - 1) {
+            int l = Integer.numberOfTrailingZeros(keys);
+            JButton btn = this.keyboard[l];
+            btn.setBackground(this.colours[delta.getKeyState(l)]);
+            if (delta.getKeyState(l) == Model.WRONG) btn.setForeground(Color.white);
         }
 
+        this.hintTurn++;
+        this.hintMessage.setText(null);
+        this.candidatesMessage.setText(delta.getRemaining() + " words left");
         // Reveal new game button after first turn
-        if (model.getTurnCount() == 1) this.newGameBtn.setVisible(true);
-        // Reveal word if player runs out of turns
-        if (!controller.getGameFlag() && !controller.getWinFlag()) answerMessage.setVisible(true);
+        if (delta.getTurn() == 0) this.newGameBtn.setVisible(true);
     }
 
 
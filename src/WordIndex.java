@@ -0,0 +1,345 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Immutable index over the guess and answer lists of one word length, five letters unless stated otherwise.
+ * Every word is packed into an int (five bits per letter, first letter in the lowest bits, so up to six letters)
+ * and stored in an open-addressing hash table, so membership is O(1) without any String comparisons.
+ * Answers occupy indices [0, answerCount()) and the remaining guess-only words follow them.
+ * The shared instance is read once per JVM from the binary dictionary written by DictionaryCompiler, unless
+ * the text lists beside it no longer have the sizes it was compiled from.
+ */
+public class WordIndex implements Lexicon {
+    // Constants
+    public static final int WORD_LENGTH = 5;
+    public static final int MAX_LENGTH = 6; // Longest word that fits in an int
+    public static final int BITS_PER_LETTER = 5;
+    public static final int LETTER_MASK = (1 << BITS_PER_LETTER) - 1;
+    public static final int INVALID = -1;
+    public static final String DICTIONARY_RESOURCE = "/assets/dictionary.bin";
+    public static final String DICTIONARY_FILE = "src/assets/dictionary.bin";
+    private static final int EMPTY = -1;
+    private static final int MAGIC = 0x57444943; // "WDIC"
+    private static final int VERSION = 2;
+    private static final int HEADER = 36; // magic, version, word count, answer count, CRC32 of the entries, source sizes
+    private static final int SOURCES = 20; // Offset of the byte sizes of the answer and guess lists in the header
+    private static final int ANSWER_FLAG = 1 << 25; // Set on entries that are also answers
+    private static volatile WordIndex shared; // Loaded on first use and shared by every Model
+    // Attributes
+    private final int length; // Letters per word
+    private final int[] words; // Packed words, answers first
+    private final int answerCount; // Number of packed words that are also answers
+    private final int[] keys; // Hash table of packed words, EMPTY where unused
+    private final int[] slots; // Index into words for each occupied key
+    private final int shift; // Shift used to reduce the hash to a table slot
+
+    /**
+     * Builds an index from packed answers and packed guesses
+     * @pre. Every element is a packed word, answers are distinct
+     * @post. contains() is true for every answer and every guess
+     */
+    public WordIndex(int[] answers, int[] guesses) {
+        this(WORD_LENGTH, answers, guesses);
+    }
+
+    /**
+     * Builds an index of length-letter words
+     * @pre. Every element is a word packed by pack(word, length), answers are distinct
+     * @post. contains() is true for every answer and every guess
+     */
+    public WordIndex(int length, int[] answers, int[] guesses) {
+        if (length < 1 || length > MAX_LENGTH) throw new IllegalArgumentException("Words of " + length + " letters do not fit in an int");
+        this.length = length;
+        int capacity = Integer.highestOneBit(Math.max(2, answers.length + guesses.length) * 2 - 1) << 1;
+        this.shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        this.keys = new int[capacity];
+        this.slots = new int[capacity];
+        Arrays.fill(this.keys, EMPTY);
+        int[] words = new int[answers.length + guesses.length];
+        int n = 0;
+        for (int w : answers) if (insert(w, n)) words[n++] = w;
+        this.answerCount = n;
+        for (int w : guesses) if (insert(w, n)) words[n++] = w;
+        this.words = Arrays.copyOf(words, n);
+    }
+
+    /**
+     * Reads the answer and guess lists from disk, skipping blank or malformed lines
+     * @pre. Both files exist and contain one word per line
+     * @post. None
+     */
+    public static WordIndex load(String answerFile, String wordsFile) throws IOException {
+        return new WordIndex(readPacked(answerFile), readPacked(wordsFile));
+    }
+
+    /**
+     * Returns the index shared by every Model in this JVM, loading it on first use.
+     * The binary dictionary is looked up on the classpath, then under DICTIONARY_FILE, and the text lists
+     * are only parsed if neither exists or the lists have changed size since it was compiled.
+     * @pre. None
+     * @post. Every call returns the same instance
+     */
+    public static WordIndex shared() throws IOException {
+        WordIndex index = shared;
+        if (index == null) {
+            synchronized (WordIndex.class) {
+                index = shared;
+                if (index == null) shared = index = loadShared();
+            }
+        }
+        return index;
+    }
+
+    private static WordIndex loadShared() throws IOException {
+        try (InputStream in = WordIndex.class.getResourceAsStream(DICTIONARY_RESOURCE)) {
+            if (in != null) {
+                ByteBuffer buffer = ByteBuffer.wrap(in.readAllBytes());
+                if (isCurrent(buffer, Model.ANSWER_FILE, Model.WORDS_FILE)) return read(buffer);
+            }
+        }
+        Path file = Paths.get(DICTIONARY_FILE);
+        if (Files.isRegularFile(file)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (isCurrent(buffer, Model.ANSWER_FILE, Model.WORDS_FILE)) return read(buffer);
+            }
+        }
+        return load(Model.ANSWER_FILE, Model.WORDS_FILE);
+    }
+
+    /**
+     * Returns false if buffer is not a dictionary of this version, or was compiled from lists of other sizes
+     * @pre. buffer is positioned at the start of the dictionary
+     * @post. The position of buffer is unchanged. True if the text lists are not on disk to compare against
+     */
+    static boolean isCurrent(ByteBuffer buffer, String answerFile, String wordsFile) throws IOException {
+        int at = buffer.position();
+        if (buffer.remaining() < HEADER || buffer.getInt(at) != MAGIC || buffer.getInt(at + 4) != VERSION) return false;
+        Path answers = Paths.get(answerFile), words = Paths.get(wordsFile);
+        if (!Files.isRegularFile(answers) || !Files.isRegularFile(words)) return true; // Deployed without the lists
+        return buffer.getLong(at + SOURCES) == Files.size(answers) && buffer.getLong(at + SOURCES + 8) == Files.size(words);
+    }
+
+    /**
+     * Reads a binary dictionary
+     * @pre. buffer is positioned at the start of a file written by write()
+     * @post. Throws IOException if the header or checksum does not match
+     */
+    public static WordIndex read(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER || buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+            throw new IOException("Not a dictionary file");
+        int count = buffer.getInt();
+        int answerCount = buffer.getInt();
+        int checksum = buffer.getInt();
+        buffer.position(buffer.position() + 2 * Long.BYTES); // Source sizes, only checked by isCurrent()
+        if (count < answerCount || buffer.remaining() != count * Integer.BYTES)
+            throw new IOException("Truncated dictionary file");
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        if ((int) crc.getValue() != checksum) throw new IOException("Dictionary checksum mismatch");
+        int[] answers = new int[answerCount];
+        int[] guesses = new int[count - answerCount];
+        for (int i = 0; i < count; i++) {
+            int entry = buffer.getInt();
+            if (i < answerCount) {
+                if ((entry & ANSWER_FLAG) == 0) throw new IOException("Answers out of order");
+                answers[i] = entry & ~ANSWER_FLAG;
+            }
+            else guesses[i - answerCount] = entry;
+        }
+        return new WordIndex(answers, guesses);
+    }
+
+    /**
+     * Writes the index as a binary dictionary: a header, then one int per word with ANSWER_FLAG on answers.
+     * The header records the byte sizes of the text lists, so isCurrent() notices when they are edited.
+     * @pre. length() == WORD_LENGTH, the index was loaded from answerFile and wordsFile
+     * @post. read() of the written bytes gives an equal index
+     */
+    public void write(Path file, Path answerFile, Path wordsFile) throws IOException {
+        if (this.length != WORD_LENGTH) throw new IllegalStateException("Only five-letter indices are written");
+        ByteBuffer entries = ByteBuffer.allocate(this.words.length * Integer.BYTES);
+        for (int i = 0; i < this.words.length; i++) entries.putInt(isAnswer(i) ? this.words[i] | ANSWER_FLAG : this.words[i]);
+        entries.flip();
+        CRC32 crc = new CRC32();
+        crc.update(entries.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        header.putInt(MAGIC).putInt(VERSION).putInt(this.words.length).putInt(this.answerCount).putInt((int) crc.getValue())
+                .putLong(Files.size(answerFile)).putLong(Files.size(wordsFile));
+        header.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) channel.write(header);
+            while (entries.hasRemaining()) channel.write(entries);
+        }
+    }
+
+    private static int[] readPacked(String file) throws IOException {
+        int[] packed = new int[4096];
+        int n = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int w = pack(line);
+                if (w == INVALID) continue;
+                if (n == packed.length) packed = Arrays.copyOf(packed, n * 2);
+                packed[n++] = w;
+            }
+        }
+        return Arrays.copyOf(packed, n);
+    }
+
+    private boolean insert(int word, int index) {
+        int slot = slot(word);
+        while (this.keys[slot] != EMPTY) {
+            if (this.keys[slot] == word) return false; // Duplicate
+            slot = (slot + 1) & (this.keys.length - 1);
+        }
+        this.keys[slot] = word;
+        this.slots[slot] = index;
+        return true;
+    }
+
+    private int slot(int word) {
+        return (word * 0x9E3779B9) >>> this.shift;
+    }
+
+    /**
+     * Returns the position of a packed word in the index, or -1 if it is absent
+     * @pre. None
+     * @post. None
+     */
+    public int indexOf(int word) {
+        if (word == INVALID) return -1;
+        int slot = slot(word);
+        int key;
+        while ((key = this.keys[slot]) != EMPTY) {
+            if (key == word) return this.slots[slot];
+            slot = (slot + 1) & (this.keys.length - 1);
+        }
+        return -1;
+    }
+
+    @Override
+    public int indexOf(CharSequence word) {
+        return indexOf(pack(word, this.length));
+    }
+
+    public boolean contains(int word) {
+        return indexOf(word) >= 0;
+    }
+
+    public boolean contains(CharSequence word) {
+        return indexOf(word) >= 0;
+    }
+
+    /**
+     * Packs a lowercase five-letter word into an int
+     * @pre. None
+     * @post. Returns INVALID if word is not exactly five characters in [a-z]
+     */
+    public static int pack(CharSequence word) {
+        return pack(word, WORD_LENGTH);
+    }
+
+    /**
+     * Packs a lowercase word of length letters into an int
+     * @pre. 1 <= length <= MAX_LENGTH
+     * @post. Returns INVALID if word is not exactly length characters in [a-z]
+     */
+    public static int pack(CharSequence word, int length) {
+        if (word.length() != length) return INVALID;
+        int packed = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            int c = word.charAt(i) - 'a';
+            if (c < 0 || c > 25) return INVALID;
+            packed = (packed << BITS_PER_LETTER) | c;
+        }
+        return packed;
+    }
+
+    /**
+     * Unpacks a packed word back into a lowercase String
+     * @pre. word is a packed word
+     * @post. Returned String has length WORD_LENGTH
+     */
+    public static String unpack(int word) {
+        return unpack(word, WORD_LENGTH);
+    }
+
+    public static String unpack(long word, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) chars[i] = (char) ('a' + letterAt(word, i));
+        return new String(chars);
+    }
+
+    public static int letterAt(int word, int i) {
+        return (word >>> (i * BITS_PER_LETTER)) & LETTER_MASK;
+    }
+
+    public static int letterAt(long word, int i) {
+        return (int) (word >>> (i * BITS_PER_LETTER)) & LETTER_MASK;
+    }
+
+    /**
+     * Returns true if every character of word is in [a-z] and word is not empty
+     * @pre. None
+     * @post. None
+     */
+    public static boolean isAlphabetic(CharSequence word) {
+        if (word.length() == 0) return false;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 'a' || c > 'z') return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns a read-only String view of the words in [from, to), unpacking each word on access
+     * @pre. 0 <= from <= to <= size()
+     * @post. None
+     */
+    @Override
+    public List<String> asList(int from, int to) {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int i) {
+                Objects.checkIndex(i, to - from);
+                return unpack(words[from + i], length);
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof CharSequence)) return false;
+                int i = indexOf((CharSequence) o);
+                return i >= from && i < to;
+            }
+        };
+    }
+
+    // Getters
+    @Override
+    public int length() { return length; }
+    @Override
+    public int size() { return words.length; }
+    @Override
+    public int answerCount() { return answerCount; }
+    @Override
+    public long packed(int i) { return words[i]; }
+    public int word(int i) { return words[i]; }
+    public int answer(int i) {
+        Objects.checkIndex(i, answerCount);
+        return words[i];
+    }
+    public boolean isAnswer(int i) { return i >= 0 && i < answerCount; }
+}
@@ -0,0 +1,142 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Streams the words of a UTF-8 word list, one word per line, without holding the file or its lines in memory.
+ * The file is decoded in fixed-size chunks and each line is packed straight into a long (five bits per letter,
+ * first letter in the lowest bits). Lines are trimmed and lowercased, and accented Latin letters lose their
+ * accents ("Café" becomes "cafe"); lines that are then not MIN to MAX letters in [a-z] are skipped.
+ * Plain ASCII lines, the common case, are packed without creating any objects.
+ */
+public final class WordStream {
+    // Constants
+    private static final int CHUNK = 1 << 16; // Bytes read per FileChannel call
+    private static final int MAX_LINE = 64; // Longer lines are skipped
+
+    /**
+     * Receives each packed word in file order
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(long packed, int length);
+    }
+
+    private final Sink sink;
+    private final int minLength, maxLength;
+    private final char[] line = new char[MAX_LINE];
+    private int lineLength;
+    private boolean overlong; // Current line has passed MAX_LINE characters
+    private long lines;
+
+    private WordStream(Sink sink, int minLength, int maxLength) {
+        this.sink = sink;
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Reads file and hands every word of minLength to maxLength letters to sink
+     * @pre. 1 <= minLength <= maxLength <= LongWordIndex.MAX_LENGTH
+     * @post. Returns the number of lines read; malformed UTF-8 is replaced and the line skipped
+     */
+    public static long read(Path file, int minLength, int maxLength, Sink sink) throws IOException {
+        WordStream stream = new WordStream(sink, minLength, maxLength);
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer bytes = ByteBuffer.allocateDirect(CHUNK);
+        CharBuffer chars = CharBuffer.allocate(CHUNK);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            boolean eof = false;
+            while (!eof) {
+                eof = channel.read(bytes) < 0;
+                bytes.flip();
+                CoderResult result;
+                do { // Overflow only when a chunk decodes to more chars than fit
+                    result = decoder.decode(bytes, chars, eof);
+                    chars.flip();
+                    stream.consume(chars);
+                    chars.clear();
+                } while (result.isOverflow());
+                bytes.compact();
+            }
+            decoder.flush(chars);
+            chars.flip();
+            stream.consume(chars);
+        }
+        stream.endLine();
+        return stream.lines;
+    }
+
+    private void consume(CharBuffer chars) {
+        while (chars.hasRemaining()) {
+            char c = chars.get();
+            if (c == '\n' || c == '\r') endLine();
+            else if (this.lineLength < MAX_LINE) this.line[this.lineLength++] = c;
+            else this.overlong = true;
+        }
+    }
+
+    private void endLine() {
+        if (this.lineLength > 0 || this.overlong) {
+            this.lines++;
+            if (!this.overlong) word();
+        }
+        this.lineLength = 0;
+        this.overlong = false;
+    }
+
+    private void word() {
+        int from = 0, to = this.lineLength;
+        while (from < to && isBlank(this.line[from])) from++;
+        while (to > from && isBlank(this.line[to - 1])) to--;
+        if (to - from > this.maxLength && !hasNonAscii(from, to)) return; // Too long even before normalising
+        long packed = 0;
+        for (int i = to - 1; i >= from; i--) {
+            int c = letter(this.line[i]);
+            if (c < 0) {
+                if (this.line[i] < 128) return; // Digits, punctuation or spaces never make a word
+                packNormalised(from, to);
+                return;
+            }
+            packed = (packed << WordIndex.BITS_PER_LETTER) | c;
+        }
+        emit(packed, to - from);
+    }
+
+    private void packNormalised(int from, int to) { // Slow path for lines with accented or other non-ASCII letters
+        String word = Normalizer.normalize(new String(this.line, from, to - from), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+        if (word.length() < this.minLength || word.length() > this.maxLength) return;
+        long packed = LongWordIndex.pack(word, word.length());
+        if (packed != LongWordIndex.INVALID) emit(packed, word.length());
+    }
+
+    private void emit(long packed, int length) {
+        if (length >= this.minLength && length <= this.maxLength) this.sink.accept(packed, length);
+    }
+
+    private boolean hasNonAscii(int from, int to) {
+        for (int i = from; i < to; i++) if (this.line[i] >= 128) return true;
+        return false;
+    }
+
+    private static boolean isBlank(char c) {
+        return c == ' ' || c == '\t' || c == '\uFEFF'; // Byte order mark at the start of the file
+    }
+
+    private static int letter(char c) {
+        if (c >= 'a' && c <= 'z') return c - 'a';
+        if (c >= 'A' && c <= 'Z') return c - 'A';
+        return -1;
+    }
+}
@@ -0,0 +1,403 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Embedded HTTP/JSON server hosting many independent games, one Model per session.
+ * Sessions live in a concurrent map and each Model is only touched while holding its own lock,
+ * so requests for different games never contend. Requests run on virtual threads when the JVM has them
+ * (Java 21+) and on a cached thread pool otherwise. With a GameJournal every event is journaled and
+ * unfinished games are restored on startup, their Model only being rebuilt when the player returns; a reply is
+ * only sent once the events it reports are on disk, outside the game's lock so concurrent games share a commit.
+ *
+ * POST   /games                       new game, optional ?answer=xxxxx and ?player=hex id for PlayerStats
+ * GET    /games/{id}                  game state
+ * POST   /games/{id}/guesses?word=x   submit a guess, returns the indicator string
+ * DELETE /games/{id}                  end the session
+ * GET    /leaderboard                 ?period=daily|weekly|all, ?metric=average|streak|fastest, ?k=N, ?player=hex
+ * GET    /analytics                   popular openers and distinct players, ?k=N, ?answer=xxxxx for one puzzle
+ */
+public class WordleServer {
+    // Constants
+    public static final int DEFAULT_PORT = 8080;
+    private static final long IDLE_TIMEOUT_MINUTES = 30;
+    // Attributes
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService reaper; // Evicts sessions that have been idle too long
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom ids = new SecureRandom();
+    private final int strictMode;
+    private final GameJournal journal; // Null when games are not persisted
+    private final Dawg dawg; // Guess list automaton in strict mode, checked before a game's lock is taken
+    private final PlayerStats stats; // Results of games started with a player id, null when not kept
+    private final Leaderboard leaderboard = new Leaderboard(); // Games started with a player id
+    private final GuessAnalytics analytics = new GuessAnalytics(); // Every guess of games started here
+
+    public WordleServer(InetSocketAddress address, int strictMode) throws IOException {
+        this(address, strictMode, null);
+    }
+
+    public WordleServer(InetSocketAddress address, int strictMode, GameJournal journal) throws IOException {
+        this(address, strictMode, journal, null);
+    }
+
+    public WordleServer(InetSocketAddress address, int strictMode, GameJournal journal, PlayerStats stats) throws IOException {
+        this.strictMode = strictMode;
+        this.journal = journal;
+        this.stats = stats;
+        this.dawg = strictMode == 1 ? Dawg.of(WordIndex.shared()) : null;
+        if (journal != null)
+            for (GameRecord game : journal.getRestoredGames().values())
+                this.sessions.put(Long.toHexString(game.getId()), new Session(game));
+        this.server = HttpServer.create(address, 0);
+        this.executor = newRequestExecutor();
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/games", this::handle);
+        this.server.createContext("/leaderboard", this::handleLeaderboard);
+        this.server.createContext("/analytics", this::handleAnalytics);
+        this.reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-reaper");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static ExecutorService newRequestExecutor() {
+        try { // Executors.newVirtualThreadPerTaskExecutor() only exists from Java 21
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    public void start() {
+        this.server.start();
+        this.reaper.scheduleAtFixedRate(this::evictIdle, 1, 1, TimeUnit.MINUTES);
+    }
+
+    public void stop() {
+        this.server.stop(0);
+        this.reaper.shutdownNow();
+        this.executor.shutdownNow();
+    }
+
+    public int getPort() {
+        return this.server.getAddress().getPort();
+    }
+
+    public int getSessionCount() {
+        return this.sessions.size();
+    }
+
+    private void evictIdle() { // Must not throw, or the scheduler stops running it
+        long cutoff = System.nanoTime() - TimeUnit.MINUTES.toNanos(IDLE_TIMEOUT_MINUTES);
+        List<Session> evicted = new ArrayList<>();
+        this.sessions.values().removeIf(s -> {
+            if (s.lastAccess - cutoff >= 0) return false;
+            evicted.add(s);
+            return true;
+        });
+        if (this.journal != null)
+            for (Session s : evicted) {
+                try {
+                    this.journal.gameEnded(s.id, false, 0);
+                } catch (RuntimeException e) { // Journal failed or closed; eviction carries on regardless
+                    System.err.println("Could not journal the eviction of game " + Long.toHexString(s.id) + ": " + e);
+                }
+            }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String[] path = exchange.getRequestURI().getPath().split("/"); // "", "games", id, "guesses"
+            Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+            if (path.length == 2 && method.equals("POST")) newGame(exchange, params);
+            else if (path.length == 3 && method.equals("GET")) state(exchange, path[2]);
+            else if (path.length == 3 && method.equals("DELETE")) endGame(exchange, path[2]);
+            else if (path.length == 4 && path[3].equals("guesses") && method.equals("POST"))
+                guess(exchange, path[2], params);
+            else send(exchange, 404, error("Unknown endpoint"));
+        } catch (RuntimeException e) {
+            send(exchange, 500, error("Internal error"));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void newGame(HttpExchange exchange, Map<String, String> params) throws IOException {
+        String answer = params.containsKey("answer") ? params.get("answer").toLowerCase() : null;
+        if (answer != null && WordIndex.pack(answer) == WordIndex.INVALID) {
+            send(exchange, 400, error("Answer is not five letters"));
+            return;
+        }
+        long player;
+        try {
+            player = params.containsKey("player") ? Long.parseUnsignedLong(params.get("player"), 16) : 0;
+        } catch (NumberFormatException e) {
+            player = 0;
+        }
+        if (params.containsKey("player") && player == 0) {
+            send(exchange, 400, error("Player id is not a non-zero hex number"));
+            return;
+        }
+        Model model = answer == null ? new Model(1, 2, this.strictMode) : new Model(2, 2, this.strictMode, answer);
+        Session session;
+        String id;
+        do {
+            session = new Session(this.ids.nextLong(), model, player);
+            id = Long.toHexString(session.id);
+        } while (this.sessions.putIfAbsent(id, session) != null);
+        model.addListener(this.analytics.listener(player, WordIndex.WORD_LENGTH));
+        if (this.journal != null) {
+            this.journal.gameStarted(session.id, model.getPackedAnswer(), player);
+            this.journal.sync();
+        }
+        StringBuilder json = new StringBuilder();
+        json.append("{\"id\":\"").append(id).append("\",\"turns\":").append(Model.NUMGUESSES).append('}');
+        send(exchange, 201, json.toString());
+    }
+
+    private void state(HttpExchange exchange, String id) throws IOException {
+        Session session = touch(id);
+        if (session == null) {
+            send(exchange, 404, error("Unknown game"));
+            return;
+        }
+        GameState game = session.state; // Immutable, so read without the game's lock or rebuilding its Model
+        StringBuilder json = new StringBuilder();
+        json.append("{\"id\":\"").append(id).append("\",\"turn\":").append(game.getTurns())
+                .append(",\"won\":").append(game.isWon())
+                .append(",\"over\":").append(game.isOver())
+                .append(",\"guesses\":[");
+        for (int t = 0; t < game.getTurns(); t++) {
+            if (t > 0) json.append(',');
+            json.append("{\"word\":\"").append(WordIndex.unpack(game.getGuess(t)))
+                    .append("\",\"indicators\":\"").append(Scorer.indicators(game.getPattern(t))).append("\"}");
+        }
+        json.append(']');
+        if (game.isOver()) json.append(",\"answer\":\"").append(WordIndex.unpack(game.getAnswer())).append('"');
+        json.append('}');
+        send(exchange, 200, json.toString());
+    }
+
+    private void guess(HttpExchange exchange, String id, Map<String, String> params) throws IOException {
+        Session session = touch(id);
+        if (session == null) {
+            send(exchange, 404, error("Unknown game"));
+            return;
+        }
+        String word = params.getOrDefault("word", "").toLowerCase();
+        if (this.dawg != null && word.length() == WordIndex.WORD_LENGTH && !this.dawg.contains(word)) {
+            send(exchange, 400, error("Word is not in the guess list")); // Rejected without touching the game
+            return;
+        }
+        Model model = session.model(this.strictMode, this.analytics);
+        StringBuilder json = new StringBuilder();
+        synchronized (model) {
+            if (!model.getGameFlag()) {
+                send(exchange, 409, error("Game is over"));
+                return;
+            }
+            String invalid = model.getValidationError(word);
+            if (invalid != null) {
+                send(exchange, 400, error(invalid));
+                return;
+            }
+            model.submitWord(word);
+            String indicators = model.getIndicators();
+            model.submitGuess();
+            int turn = model.getTurnCount() - 1;
+            session.state = session.state.apply(model.getPackedGuess(turn)); // One step on, not a replay of the game
+            if (this.journal != null) {
+                this.journal.guessSubmitted(session.id, model.getPackedGuess(turn), model.getPattern(turn));
+                if (!model.getGameFlag()) this.journal.gameEnded(session.id, model.getWinFlag(), model.getTurnCount());
+            }
+            if (session.player != 0 && !model.getGameFlag()) {
+                if (this.stats != null) this.stats.recordGame(session.player, model.getWinFlag(), model.getTurnCount());
+                this.leaderboard.recordGame(session.player, model.getWinFlag(), model.getTurnCount(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - session.started));
+            }
+            json.append("{\"indicators\":\"").append(indicators).append("\",\"turn\":").append(model.getTurnCount())
+                    .append(",\"won\":").append(model.getWinFlag())
+                    .append(",\"over\":").append(!model.getGameFlag());
+            if (!model.getGameFlag()) json.append(",\"answer\":\"").append(model.letterListToString(model.getAnswer())).append('"');
+            json.append('}');
+        }
+        if (this.journal != null) this.journal.sync();
+        send(exchange, 200, json.toString());
+    }
+
+    private void endGame(HttpExchange exchange, String id) throws IOException {
+        Session session = this.sessions.remove(id);
+        if (session == null) send(exchange, 404, error("Unknown game"));
+        else {
+            if (this.journal != null) {
+                this.journal.gameEnded(session.id, false, 0);
+                this.journal.sync();
+            }
+            exchange.sendResponseHeaders(204, -1);
+        }
+    }
+
+    private void handleLeaderboard(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+            if (!exchange.getRequestMethod().equals("GET")) {
+                send(exchange, 404, error("Unknown endpoint"));
+                return;
+            }
+            Leaderboard.Period period;
+            Leaderboard.Metric metric;
+            int k;
+            long player;
+            try {
+                period = parseOption(params.getOrDefault("period", "all"), Leaderboard.Period.values(), "daily", "weekly", "all");
+                metric = parseOption(params.getOrDefault("metric", "average"), Leaderboard.Metric.values(), "average", "streak", "fastest");
+                k = Math.min(100, Integer.parseInt(params.getOrDefault("k", "10")));
+                player = params.containsKey("player") ? Long.parseUnsignedLong(params.get("player"), 16) : 0;
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, error("Bad leaderboard query"));
+                return;
+            }
+            StringBuilder json = new StringBuilder("{\"players\":").append(this.leaderboard.getPlayerCount(period))
+                    .append(",\"top\":[");
+            List<Leaderboard.Standing> top = this.leaderboard.top(period, metric, Math.max(0, k));
+            for (int i = 0; i < top.size(); i++) {
+                Leaderboard.Standing standing = top.get(i);
+                if (i > 0) json.append(',');
+                json.append("{\"player\":\"").append(Long.toHexString(standing.getPlayer()))
+                        .append("\",\"rank\":").append(standing.getRank()).append(",\"value\":").append(standing.getValue()).append('}');
+            }
+            json.append(']');
+            if (player != 0) json.append(",\"rank\":").append(this.leaderboard.rank(period, metric, player));
+            json.append('}');
+            send(exchange, 200, json.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleAnalytics(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+            int k;
+            try {
+                k = Math.max(0, Math.min(64, Integer.parseInt(params.getOrDefault("k", "10"))));
+            } catch (NumberFormatException e) {
+                send(exchange, 400, error("Bad analytics query"));
+                return;
+            }
+            StringBuilder json = new StringBuilder("{\"guesses\":").append(this.analytics.getGuessTotal())
+                    .append(",\"players\":").append(this.analytics.distinctPlayers()).append(",\"openers\":[");
+            List<HeavyHitters.Counter> openers = this.analytics.topOpeners(k);
+            for (int i = 0; i < openers.size(); i++) {
+                if (i > 0) json.append(',');
+                json.append("{\"word\":\"").append(GuessAnalytics.wordOf(openers.get(i).getKey()))
+                        .append("\",\"count\":").append(openers.get(i).getCount()).append('}');
+            }
+            json.append(']');
+            String answer = params.get("answer");
+            if (answer != null && WordIndex.pack(answer.toLowerCase()) != WordIndex.INVALID)
+                json.append(",\"answer\":\"").append(answer.toLowerCase())
+                        .append("\",\"solved\":").append(this.analytics.solvedCount(answer.toLowerCase()))
+                        .append(",\"answerPlayers\":").append(this.analytics.distinctPlayers(answer.toLowerCase()));
+            json.append('}');
+            send(exchange, 200, json.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static <E> E parseOption(String value, E[] options, String... names) { // names[i] selects options[i]
+        for (int i = 0; i < names.length; i++) if (names[i].equals(value)) return options[i];
+        throw new IllegalArgumentException(value);
+    }
+
+    private Session touch(String id) {
+        Session session = this.sessions.get(id);
+        if (session != null) session.lastAccess = System.nanoTime();
+        return session;
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null) return params;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static String error(String message) { // Messages are fixed strings from this server and Model
+        return "{\"error\":\"" + message + "\"}";
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static final class Session {
+        final long id;
+        final long player; // PlayerStats id, 0 when the game is not counted
+        private Model model; // Built from record on first use when the session was restored
+        private GameRecord record;
+        volatile GameState state; // Replaced after every guess, under the Model's lock
+        volatile long lastAccess = System.nanoTime();
+        final long started = System.nanoTime(); // Solve times for the leaderboard count from here, or from the restore
+
+        Session(long id, Model model, long player) {
+            this.id = id;
+            this.player = player;
+            this.model = model;
+            this.state = model.getState();
+        }
+
+        Session(GameRecord record) {
+            this.id = record.getId();
+            this.player = record.getPlayer();
+            this.record = record;
+            this.state = record.toState();
+        }
+
+        synchronized Model model(int strictMode, GuessAnalytics analytics) throws IOException {
+            if (this.model == null) { // Guesses replayed from the record were counted before the restart
+                this.model = this.record.toModel(strictMode);
+                this.model.addListener(analytics.listener(this.player, WordIndex.WORD_LENGTH));
+                this.record = null;
+            }
+            return this.model;
+        }
+    }
+
+    /**
+     * Starts a server on args[0] (default 8080); args[1] of 2 allows any five-letter guess,
+     * args[2] is a directory to journal games in, args[3] a file to keep player stats in
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int strictMode = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        GameJournal journal = args.length > 2 ? GameJournal.open(Paths.get(args[2]), 100_000) : null;
+        PlayerStats stats = args.length > 3 ? PlayerStats.open(Paths.get(args[3]), 1 << 22) : null;
+        WordleServer server = new WordleServer(new InetSocketAddress(port), strictMode, journal, stats);
+        server.start();
+        System.out.println("Wordle server listening on port " + server.getPort());
+    }
+}